@@ -0,0 +1,92 @@
+package com.lumen.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+import com.lumen.inventory.service.enrichement.InventoryEnrichmentService;
+import com.lumen.inventory.service.mapper.MappedProduct;
+import com.lumen.inventory.service.mapper.ProductToServiceInventoryMapper;
+import com.lumen.inventory.service.mapper.SnowProductPage;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product mapping and billing account enrichment, without any AM call: the BAN mappings are precomputed, as
+ * they would be once AM has answered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrichmentBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    public int productCount;
+
+    private String snowJson;
+    private List<Product> productList;
+    private ConcurrentHashMap<String, BillingAccountMapping> banMappings;
+    private ProductToServiceInventoryMapper mapper;
+    private InventoryEnrichmentService enrichmentService;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        snowJson = SnowPayloads.products(productCount);
+        productList = SnowPayloads.productList(snowJson);
+        banMappings = SnowPayloads.banMappings(productCount);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        mapper = new ProductToServiceInventoryMapper(SnowPayloads.enrichmentProperties());
+        // The BAN mapping cache is only used by AM lookups, which are not benchmarked here.
+        enrichmentService = new InventoryEnrichmentService(null, mapper, new InventoryStageMetrics(meterRegistry));
+    }
+
+    @Benchmark
+    public void mapProduct(Blackhole blackhole) {
+        for (Product product : productList) {
+            blackhole.consume(mapper.map(product));
+        }
+    }
+
+    @Benchmark
+    public void mapProductWithBillingAccount(Blackhole blackhole) {
+        for (Product product : productList) {
+            blackhole.consume(mapper.map(product, banMappings, null));
+        }
+    }
+
+    /**
+     * The former whole-list path: a bound {@code List<Product>} mapped in parallel once AM has answered.
+     */
+    @Benchmark
+    public List<ServiceInventory> enrichProductList() {
+        return productList.parallelStream()
+                .map(product -> mapper.map(product, banMappings, null))
+                .toList();
+    }
+
+    @Benchmark
+    public List<MappedProduct> mapSnowProductsAndApplyBillingAccounts() throws JsonProcessingException {
+        SnowProductPage page = enrichmentService.mapSnowProducts(snowJson, product -> true);
+        enrichmentService.applyBillingAccounts(page.mappedProducts(), banMappings);
+        return page.mappedProducts();
+    }
+}
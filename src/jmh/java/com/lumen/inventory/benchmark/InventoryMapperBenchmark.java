@@ -0,0 +1,60 @@
+package com.lumen.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.service.mapper.InventoryMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SNOW payload parsing: full list binding against the streaming parse used by the Internet flow, plus the
+ * BAN extraction over a parsed list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryMapperBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    public int productCount;
+
+    private String snowJson;
+    private List<Product> productList;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        snowJson = SnowPayloads.products(productCount);
+        productList = SnowPayloads.productList(snowJson);
+    }
+
+    @Benchmark
+    public List<Product> mapJsonToProductList() throws JsonProcessingException {
+        return SnowPayloads.productList(snowJson);
+    }
+
+    @Benchmark
+    public void streamProducts(Blackhole blackhole) throws JsonProcessingException {
+        InventoryMapper.streamProducts(snowJson, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<String> getDistinctAlternateNumbersFromSnow() {
+        return InventoryMapper.getDistinctAlternateNumbersFromSnow(productList);
+    }
+}
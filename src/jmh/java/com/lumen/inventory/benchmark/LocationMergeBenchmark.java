@@ -0,0 +1,85 @@
+package com.lumen.inventory.benchmark;
+
+import com.lumen.glm.dto.ServiceLocation;
+import com.lumen.inventory.dto.responses.Address;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.service.enrichement.LocationEnrichmentService;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merge of GLM site addresses into inventory items, three items per site, with site ids in a different case
+ * than GLM returns them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationMergeBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    public int productCount;
+
+    private List<ServiceLocation> siteLocations;
+    private List<ServiceInventory> inventoryList;
+    private LocationEnrichmentService locationEnrichmentService;
+
+    @Setup
+    public void setUp() {
+        siteLocations = new ArrayList<>();
+        for (int i = 0; i < productCount; i += 3) {
+            siteLocations.add(SnowPayloads.convert(Map.of(
+                    "masterSiteId", SnowPayloads.masterSiteId(i),
+                    "addressLine1", Map.of(
+                            "addressLine1and2Combined", i + " Main St",
+                            "city", "Denver",
+                            "stateId", "CO",
+                            "addressBlock3", "USA",
+                            "postalCode", "80202")), ServiceLocation.class));
+        }
+        // GLM is not called; the cache is only used by fetchSiteLocations.
+        locationEnrichmentService = new LocationEnrichmentService(null, new InventoryStageMetrics(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * The merge replaces each item's location, so the items are rebuilt before every invocation.
+     */
+    @Setup(Level.Invocation)
+    public void resetInventory() {
+        inventoryList = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            Address location = new Address();
+            location.setMasterSiteid(SnowPayloads.masterSiteId(i).toLowerCase(Locale.ROOT));
+            ServiceInventory inventory = new ServiceInventory();
+            inventory.setServiceId(SnowPayloads.serviceId(i));
+            inventory.setLocation(location);
+            inventoryList.add(inventory);
+        }
+    }
+
+    @Benchmark
+    public List<ServiceInventory> applyLocations() {
+        locationEnrichmentService.applyLocations(inventoryList, siteLocations);
+        return inventoryList;
+    }
+}
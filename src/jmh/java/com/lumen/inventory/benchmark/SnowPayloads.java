@@ -0,0 +1,124 @@
+package com.lumen.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Synthetic SNOW product payloads shaped like production responses, for the benchmarks.
+ * <p>
+ * Every product carries a dozen characteristics (four of them on the attribute whitelist), a Customer related
+ * party holding its BAN plus one other party, a realizing service and a product relationship. Products share
+ * BANs five to one, as customers with many services do.
+ * </p>
+ */
+final class SnowPayloads {
+    static final String VALID_ATTRIBUTE_LIST = "UNI Service ID,Router Type,Product Code,Service Name";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final String[] CHARACTERISTICS = {
+            "UNI Service ID", "Router Type", "Product Code", "Service Name", "Bandwidth", "Circuit ID",
+            "Access Type", "IP Block", "VLAN", "Handoff", "Install Date", "Contract Term"
+    };
+
+    private static final ObjectReader PRODUCT_LIST_READER = new ObjectMapper().readerFor(new TypeReference<List<Product>>() {});
+
+    private SnowPayloads() {
+    }
+
+    /**
+     * Binds a whole payload to a {@code List<Product>} in one go, as the Internet flow did before it parsed
+     * products one at a time; the baseline the streaming parse is measured against.
+     */
+    static List<Product> productList(String json) throws JsonProcessingException {
+        return PRODUCT_LIST_READER.readValue(json);
+    }
+
+    /**
+     * Builds a JSON array of {@code productCount} products.
+     */
+    static String products(int productCount) {
+        ArrayNode products = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < productCount; i++) {
+            ObjectNode product = products.addObject();
+            product.put("id", serviceId(i));
+            product.put("name", "Internet On-Demand");
+            product.put("description", "Dedicated Internet Access " + i);
+            product.put("status", i % 10 == 0 ? "Pending" : "Active");
+            ArrayNode characteristics = product.putArray("productCharacteristic");
+            for (String name : CHARACTERISTICS) {
+                characteristics.addObject()
+                        .put("name", name)
+                        .put("valueType", "string")
+                        .put("value", name + " value " + i);
+            }
+            ArrayNode relatedParty = product.putArray("relatedParty");
+            relatedParty.addObject()
+                    .put("id", ban(i))
+                    .put("name", "Billing account " + ban(i))
+                    .put("role", "Billing")
+                    .put("referredType", "Customer");
+            relatedParty.addObject()
+                    .put("id", "CONTACT-" + i)
+                    .put("name", "Technical contact")
+                    .put("role", "Technical")
+                    .put("referredType", "Individual");
+            product.putArray("realizingService").addObject()
+                    .put("id", "SVC-" + i)
+                    .put("name", "Internet access service");
+            product.putArray("productRelationship").addObject()
+                    .put("relationshipType", "bundled")
+                    .put("product", "PRD-" + (i / 2));
+        }
+        return products.toString();
+    }
+
+    /**
+     * AM answers for every BAN used by {@link #products(int)}.
+     */
+    static ConcurrentHashMap<String, BillingAccountMapping> banMappings(int productCount) {
+        ConcurrentHashMap<String, BillingAccountMapping> banMappings = new ConcurrentHashMap<>();
+        for (int i = 0; i < productCount; i++) {
+            banMappings.putIfAbsent(ban(i), new BillingAccountMapping("INV-" + ban(i), "CUST-" + (i / 5)));
+        }
+        return banMappings;
+    }
+
+    static InventoryEnrichmentProperties enrichmentProperties() {
+        InventoryEnrichmentProperties properties = new InventoryEnrichmentProperties();
+        properties.setValidAttributeList(VALID_ATTRIBUTE_LIST);
+        properties.setProductSpecificationNameForSNow("Internet On-Demand");
+        return properties;
+    }
+
+    static String serviceId(int index) {
+        return "SVC" + String.format("%08d", index);
+    }
+
+    static String masterSiteId(int index) {
+        return "MS" + String.format("%07d", index / 3);
+    }
+
+    /**
+     * Converts a map shaped like a GLM response into the GLM client DTO.
+     */
+    static <T> T convert(Map<String, Object> value, Class<T> type) {
+        return OBJECT_MAPPER.convertValue(value, type);
+    }
+
+    private static String ban(int index) {
+        return "BAN" + String.format("%07d", index / 5);
+    }
+}
@@ -0,0 +1,50 @@
+package com.lumen.inventory.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the BAN to billing account cache kept in front of Account Management.
+ */
+@Component
+@ConfigurationProperties(prefix = "naas.inventory.am-cache")
+public class BanMappingCacheProperties {
+    private long maximumSize = 50_000;
+    private Duration ttl = Duration.ofHours(6);
+    private Duration negativeTtl = Duration.ofMinutes(5);
+    private Duration refreshAfter = Duration.ofHours(1);
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    public void setRefreshAfter(Duration refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+}
@@ -6,16 +6,43 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "naas.inventory")
 public class InventoryEnrichmentProperties {
-    private int threadAllocationCount = 10;
+    private int maxConcurrentAmCalls = 50;
+    private int maxConcurrentPortCustomers = 8;
+    private int snowCustomerChunkSize = 25;
+    private int maxConcurrentSnowCalls = 4;
     private String validAttributeList = "";
     private String productSpecificationNameForSNow = "Internet";
 
-    public int getThreadAllocationCount() {
-        return threadAllocationCount;
+    public int getMaxConcurrentAmCalls() {
+        return maxConcurrentAmCalls;
     }
 
-    public void setThreadAllocationCount(int threadAllocationCount) {
-        this.threadAllocationCount = threadAllocationCount;
+    public void setMaxConcurrentAmCalls(int maxConcurrentAmCalls) {
+        this.maxConcurrentAmCalls = maxConcurrentAmCalls;
+    }
+
+    public int getMaxConcurrentPortCustomers() {
+        return maxConcurrentPortCustomers;
+    }
+
+    public void setMaxConcurrentPortCustomers(int maxConcurrentPortCustomers) {
+        this.maxConcurrentPortCustomers = maxConcurrentPortCustomers;
+    }
+
+    public int getSnowCustomerChunkSize() {
+        return snowCustomerChunkSize;
+    }
+
+    public void setSnowCustomerChunkSize(int snowCustomerChunkSize) {
+        this.snowCustomerChunkSize = snowCustomerChunkSize;
+    }
+
+    public int getMaxConcurrentSnowCalls() {
+        return maxConcurrentSnowCalls;
+    }
+
+    public void setMaxConcurrentSnowCalls(int maxConcurrentSnowCalls) {
+        this.maxConcurrentSnowCalls = maxConcurrentSnowCalls;
     }
 
     public String getValidAttributeList() {
@@ -0,0 +1,41 @@
+package com.lumen.inventory.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the opt-in inventory response cache used for ETag / If-None-Match handling.
+ */
+@Component
+@ConfigurationProperties(prefix = "naas.inventory.response-cache")
+public class InventoryResponseCacheProperties {
+    private boolean enabled = false;
+    private Duration ttl = Duration.ofSeconds(10);
+    private long maximumSize = 1_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+}
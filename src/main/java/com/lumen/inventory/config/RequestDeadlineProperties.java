@@ -0,0 +1,32 @@
+package com.lumen.inventory.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Total time budget of an inventory request, see {@link com.lumen.inventory.service.deadline.RequestDeadline}.
+ */
+@Component
+@ConfigurationProperties(prefix = "naas.inventory.request-deadline")
+public class RequestDeadlineProperties {
+    private Duration defaultTimeout = Duration.ofSeconds(60);
+    private Duration maxTimeout = Duration.ofSeconds(120);
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Duration getMaxTimeout() {
+        return maxTimeout;
+    }
+
+    public void setMaxTimeout(Duration maxTimeout) {
+        this.maxTimeout = maxTimeout;
+    }
+}
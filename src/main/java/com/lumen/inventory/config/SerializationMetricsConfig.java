@@ -0,0 +1,137 @@
+package com.lumen.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Records JSON response serialization as the {@code serialization} stage of {@link InventoryStageMetrics}.
+ * <p>
+ * The Jackson message converter is replaced by a subclass using the same {@link ObjectMapper} that times each write
+ * and counts the bytes written; inventory items written are counted as well. An NDJSON export is written one
+ * item at a time, so its writes are recorded as the separate {@code serialization.stream} stage; otherwise
+ * thousands of per-item samples would swamp the per-response latencies of the {@code serialization} stage.
+ * </p>
+ */
+@Configuration
+public class SerializationMetricsConfig implements WebMvcConfigurer {
+
+    private final InventoryStageMetrics inventoryStageMetrics;
+
+    public SerializationMetricsConfig(InventoryStageMetrics inventoryStageMetrics) {
+        this.inventoryStageMetrics = inventoryStageMetrics;
+    }
+
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jacksonConverter
+                    && !(jacksonConverter instanceof TimedJacksonHttpMessageConverter)) {
+                TimedJacksonHttpMessageConverter timedConverter =
+                        new TimedJacksonHttpMessageConverter(jacksonConverter.getObjectMapper(), inventoryStageMetrics);
+                timedConverter.setSupportedMediaTypes(jacksonConverter.getSupportedMediaTypes());
+                converters.set(i, timedConverter);
+            }
+        }
+    }
+
+    private static class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+        private final InventoryStageMetrics inventoryStageMetrics;
+
+        TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, InventoryStageMetrics inventoryStageMetrics) {
+            super(objectMapper);
+            this.inventoryStageMetrics = inventoryStageMetrics;
+        }
+
+        @Override
+        protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            String stage = MediaType.APPLICATION_NDJSON.isCompatibleWith(outputMessage.getHeaders().getContentType())
+                    ? InventoryStageMetrics.STREAM_SERIALIZATION
+                    : InventoryStageMetrics.SERIALIZATION;
+            CountingOutputMessage countingMessage = new CountingOutputMessage(outputMessage);
+            long start = System.nanoTime();
+            try {
+                super.writeInternal(object, type, countingMessage);
+            } finally {
+                inventoryStageMetrics.record(stage, System.nanoTime() - start);
+                inventoryStageMetrics.countBytes(stage, countingMessage.bytesWritten());
+                inventoryStageMetrics.countItems(stage, inventoryItems(object));
+            }
+        }
+
+        private static long inventoryItems(Object object) {
+            if (object instanceof GetInventoryResponse response && response.getInventoryList() != null) {
+                return response.getInventoryList().size();
+            }
+            return object instanceof ServiceInventory ? 1 : 0;
+        }
+    }
+
+    /**
+     * Output message that counts the bytes written to the underlying body.
+     */
+    private static class CountingOutputMessage implements HttpOutputMessage {
+        private final HttpOutputMessage delegate;
+        private CountingOutputStream body;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        @NonNull
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingOutputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        long bytesWritten() {
+            return body != null ? body.count : 0;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
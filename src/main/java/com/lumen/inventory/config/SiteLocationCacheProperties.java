@@ -0,0 +1,32 @@
+package com.lumen.inventory.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the master site id to GLM location cache.
+ */
+@Component
+@ConfigurationProperties(prefix = "naas.inventory.glm-cache")
+public class SiteLocationCacheProperties {
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofHours(24);
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,229 @@
+package com.lumen.inventory.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulkhead, timeout and circuit breaker settings for each upstream the inventory depends on.
+ */
+@Component
+@ConfigurationProperties(prefix = "naas.inventory.upstream")
+public class UpstreamResilienceProperties {
+    private Upstream snow = new Upstream(20, Duration.ofSeconds(30), Duration.ofSeconds(2));
+    private Upstream am = new Upstream(50, Duration.ofSeconds(5));
+    private Upstream glm = new Upstream(20, Duration.ofSeconds(10));
+    private Upstream resourceApi = new Upstream(20, Duration.ofSeconds(30));
+
+    public Upstream getSnow() {
+        return snow;
+    }
+
+    public void setSnow(Upstream snow) {
+        this.snow = snow;
+    }
+
+    public Upstream getAm() {
+        return am;
+    }
+
+    public void setAm(Upstream am) {
+        this.am = am;
+    }
+
+    public Upstream getGlm() {
+        return glm;
+    }
+
+    public void setGlm(Upstream glm) {
+        this.glm = glm;
+    }
+
+    public Upstream getResourceApi() {
+        return resourceApi;
+    }
+
+    public void setResourceApi(Upstream resourceApi) {
+        this.resourceApi = resourceApi;
+    }
+
+    /**
+     * Settings of one upstream.
+     */
+    public static class Upstream {
+        /** Calls allowed in flight at once; further calls wait up to {@code maxWait}, then are rejected. */
+        private int maxConcurrentCalls;
+        /**
+         * How long a call may wait for one of the {@code maxConcurrentCalls} to finish, never past the request
+         * deadline. SNOW waits by default: a request fans out up to {@code max-concurrent-snow-calls} SNOW calls,
+         * so a handful of concurrent large requests would otherwise fill the bulkhead and turn each other away.
+         */
+        private Duration maxWait;
+        /** Time after which a call is abandoned and counted as a failure. */
+        private Duration timeout;
+        /** Failure rate (percent) over the sliding window at which the circuit opens. */
+        private float failureRateThreshold = 50;
+        /** Number of most recent calls the failure rate is computed over. */
+        private int slidingWindowSize = 20;
+        /** Calls needed in the window before the failure rate is evaluated. */
+        private int minimumNumberOfCalls = 10;
+        /** How long an open circuit rejects calls before letting probe calls through. */
+        private Duration openDuration = Duration.ofSeconds(30);
+        /** Hedging of slow calls; only applied to AM and GLM. */
+        private Hedge hedge = new Hedge();
+
+        public Upstream() {
+            this(20, Duration.ofSeconds(30));
+        }
+
+        public Upstream(int maxConcurrentCalls, Duration timeout) {
+            this(maxConcurrentCalls, timeout, Duration.ZERO);
+        }
+
+        public Upstream(int maxConcurrentCalls, Duration timeout, Duration maxWait) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.timeout = timeout;
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public Hedge getHedge() {
+            return hedge;
+        }
+
+        public void setHedge(Hedge hedge) {
+            this.hedge = hedge;
+        }
+    }
+
+    /**
+     * Hedging settings of one upstream: a call still running after the {@code percentile} latency of recent calls
+     * is sent a second time, and the first answer wins.
+     */
+    public static class Hedge {
+        private boolean enabled = false;
+        /** Latency percentile of recent calls after which a hedge is sent. */
+        private double percentile = 0.95;
+        /** Lower bound of the hedge delay, whatever the percentile. */
+        private Duration minDelay = Duration.ofMillis(50);
+        /** Hedge delay used until {@code minimumSamples} calls have been measured. */
+        private Duration initialDelay = Duration.ofMillis(500);
+        private int minimumSamples = 50;
+        /** Hedges allowed, as a percentage of calls, so hedging adds at most this much load. */
+        private int budgetPercent = 10;
+        /** Hedges the unused budget may save up, i.e. how many can be sent back to back after a quiet spell. */
+        private int maxBurst = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public int getMinimumSamples() {
+            return minimumSamples;
+        }
+
+        public void setMinimumSamples(int minimumSamples) {
+            this.minimumSamples = minimumSamples;
+        }
+
+        public int getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(int budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getMaxBurst() {
+            return maxBurst;
+        }
+
+        public void setMaxBurst(int maxBurst) {
+            this.maxBurst = maxBurst;
+        }
+    }
+}
@@ -19,6 +19,24 @@ public final class InventoryApiDocumentation {
         public static final String OPERATION_ID = "getCustomerInventory";
     }
     
+    public static final class ExportInventory {
+        public static final String SUMMARY = "Export customer inventory as NDJSON";
+        public static final String DESCRIPTION = """
+            Stream the complete inventory for multiple customers as newline-delimited JSON.
+            Each inventory item is written as soon as it is enriched, walking all upstream pages in sequence.
+            """;
+        public static final String OPERATION_ID = "exportCustomerInventory";
+    }
+    
+    public static final class GetEnrichment {
+        public static final String SUMMARY = "Resolve missing inventory enrichments";
+        public static final String DESCRIPTION = """
+            Resolve the billing accounts and locations a partial inventory response was returned without, by the keys
+            listed in the missingEnrichments of its items. Only Account Management and GLM are called, not the inventory.
+            """;
+        public static final String OPERATION_ID = "getInventoryEnrichment";
+    }
+    
     public static final class Parameters {
         public static final String CUSTOMER_NUMBERS_DESCRIPTION = 
             "List of customer numbers to query inventory for";
@@ -29,7 +47,8 @@ public final class InventoryApiDocumentation {
         public static final String PRODUCT_CODE_DESCRIPTION = 
             "Product code filter (e.g., AVPN, Internet)";
         public static final String SERVICE_TYPE_DESCRIPTION = 
-            "Service type filter";
+            "Service type filter: Internet, Port, a comma-separated list (Internet,Port) or All. " +
+            "Defaults to All; several types are retrieved concurrently and a failed type is reported in errors";
         public static final String STATUS_DESCRIPTION = 
             "Status filter (e.g., Active, Suspended)";
         public static final String SERVICE_ID_DESCRIPTION = 
@@ -42,11 +61,25 @@ public final class InventoryApiDocumentation {
             "Additional data to include in response";
         public static final String CORRELATION_ID_DESCRIPTION = 
             "Correlation ID for distributed tracing";
+        public static final String IF_NONE_MATCH_DESCRIPTION = 
+            "ETag of a previously received response; 304 is returned if the inventory is unchanged";
+
+        public static final String BANS_DESCRIPTION =
+            "BANs whose billing account is missing (keys of billingAccount missingEnrichments, at most 100)";
+        public static final String MASTER_SITE_IDS_DESCRIPTION =
+            "Master site ids whose location is missing (keys of location missingEnrichments, at most 100)";
+
+        public static final String REQUEST_TIMEOUT_DESCRIPTION =
+            "Time budget of the request in milliseconds (capped by configuration). Enrichment still running when it "
+            + "runs out is cancelled and the items are returned without it; if the inventory itself could not be "
+            + "fetched in time, 503 is returned";
     }
     
     public static final class Responses {
         public static final String SUCCESS_200_DESCRIPTION = 
             "Successfully retrieved inventory";
+        public static final String NOT_MODIFIED_304_DESCRIPTION = 
+            "Inventory unchanged since the ETag given in If-None-Match";
         public static final String BAD_REQUEST_400_DESCRIPTION = 
             "Invalid request parameters or missing required fields";
         public static final String UNAUTHORIZED_401_DESCRIPTION = 
@@ -4,17 +4,23 @@ import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.lumen.inventory.config.RequestDeadlineProperties;
 import com.lumen.inventory.config.documentation.InventoryApiDocumentation;
 import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetEnrichmentResponse;
 import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.ServiceInventory;
 import com.lumen.inventory.service.InventoryQueryService;
+import com.lumen.inventory.service.deadline.RequestDeadline;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +32,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * HTTP endpoint handler for inventory operations (Refactored for SOLID principles).
@@ -73,6 +81,8 @@ public class InventoryController {
 
     private final InventoryQueryService inventoryQueryService;
 
+    private final RequestDeadlineProperties requestDeadlineProperties;
+
     /**
      * Retrieves inventory for multiple customers with advanced filtering and pagination.
      * 
@@ -82,8 +92,9 @@ public class InventoryController {
      * 
      * <p><strong>Pagination:</strong></p>
      * <p>Supports pagination with configurable page sizes. Default values are
-     * pageNumber=1 and pageSize=20. Maximum page size is typically limited to prevent
-     * performance issues.</p>
+     * pageNumber=1 and pageSize=20; the maximum page size is 100. Paging is applied by
+     * ServiceNow, so only the requested page is enriched, and the response reports the
+     * total record count when ServiceNow provides it.</p>
      * 
      * <p><strong>Filtering:</strong></p>
      * <p>Multiple filter criteria can be combined for precise inventory selection:
@@ -98,7 +109,20 @@ public class InventoryController {
      * 
      * <p><strong>Headers:</strong></p>
      * <p>Optional headers include correlation ID for tracking purposes across
-     * distributed systems.</p>
+     * distributed systems. When the response cache is enabled, responses carry an
+     * {@code ETag} and a matching {@code If-None-Match} header yields 304 Not Modified.
+     * {@code X-Request-Timeout} sets the request's time budget in milliseconds (otherwise the configured default);
+     * every stage only gets the budget that is left.</p>
+     * 
+     * <p><strong>Partial results:</strong></p>
+     * <p>When Account Management or GLM could not be reached in time, the items are returned without that
+     * enrichment: each lists it in {@code missingEnrichments} and the response is marked {@code partial}, with an
+     * {@code enrichmentStatus} per enrichment. Partial responses are not cached; the missing enrichments can be
+     * resolved through {@link #getInventoryEnrichment} instead of repeating the query.</p>
+     * 
+     * <p><strong>Async processing:</strong></p>
+     * <p>The response is produced asynchronously; the servlet thread is released while
+     * ServiceNow, Account Management and GLM are being called.</p>
      * 
      * @param customerNumbers List of customer numbers to query inventory for
      * @param pageNumber Optional page number for pagination (default: 1)
@@ -111,11 +135,13 @@ public class InventoryController {
      * @param naasEnabled Optional NAAS enabled filter
      * @param include Optional include parameter for additional data
      * @param correlationId Optional correlation ID for request tracking
+     * @param requestTimeout Optional time budget of the request, in milliseconds
      * @param headers All request headers for authentication/tracking
      * 
-     * @return {@link ResponseEntity} containing:
+     * @return {@link Mono} of {@link ResponseEntity} containing:
      *         <ul>
      *           <li>200 OK: Paginated list of inventory items matching criteria</li>
+     *           <li>304 Not Modified: If-None-Match matches the cached response's ETag</li>
      *           <li>400 Bad Request: Invalid parameters or missing required headers</li>
      *           <li>401 Unauthorized: Invalid or missing authentication headers</li>
      *           <li>500 Internal Server Error: Unexpected server-side errors</li>
@@ -150,6 +176,10 @@ public class InventoryController {
                 }
             )
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = InventoryApiDocumentation.Responses.NOT_MODIFIED_304_DESCRIPTION
+        ),
         @ApiResponse(
             responseCode = "400",
             description = InventoryApiDocumentation.Responses.BAD_REQUEST_400_DESCRIPTION,
@@ -200,7 +230,7 @@ public class InventoryController {
     })
     @GetMapping(path = "/inventory", produces = MediaType.APPLICATION_JSON_VALUE)
 
-    public ResponseEntity<GetInventoryResponse> getCustomerInventory(
+    public Mono<ResponseEntity<GetInventoryResponse>> getCustomerInventory(
             @Parameter(
                 name = "customerNumbers",
                 description = "List of customer numbers to query inventory for",
@@ -229,16 +259,199 @@ public class InventoryController {
                 description = InventoryApiDocumentation.Parameters.SERVICE_ID_DESCRIPTION,
                 example = "SVC123456"
             )
-            @RequestParam(name = "serviceId", required = false) Optional<String> serviceId) {
+            @RequestParam(name = "serviceId", required = false) Optional<String> serviceId,
+
+            @Parameter(
+                name = "pageNumber",
+                description = InventoryApiDocumentation.Parameters.PAGE_NUMBER_DESCRIPTION,
+                example = "1"
+            )
+            @RequestParam(name = "pageNumber", required = false) Optional<Integer> pageNumber,
+
+            @Parameter(
+                name = "pageSize",
+                description = InventoryApiDocumentation.Parameters.PAGE_SIZE_DESCRIPTION,
+                example = "20"
+            )
+            @RequestParam(name = "pageSize", required = false) Optional<Integer> pageSize,
+
+            @Parameter(
+                name = HttpHeaders.IF_NONE_MATCH,
+                description = InventoryApiDocumentation.Parameters.IF_NONE_MATCH_DESCRIPTION,
+                in = ParameterIn.HEADER
+            )
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) Optional<String> ifNoneMatch,
+
+            @Parameter(
+                name = RequestDeadline.HEADER,
+                description = InventoryApiDocumentation.Parameters.REQUEST_TIMEOUT_DESCRIPTION,
+                in = ParameterIn.HEADER,
+                example = "30000"
+            )
+            @RequestHeader(name = RequestDeadline.HEADER, required = false) Optional<Long> requestTimeout) {
 
         var queryParams = new InventoryQueryParams(
             customerNumbers,
             serviceType,
-            serviceId
+            serviceId,
+            pageNumber,
+            pageSize
         );
 
         logger.debug("Inventory query - {}", queryParams.getQuerySummary());
 
-        return inventoryQueryService.getCustomerInventory(queryParams);
+        RequestDeadline deadline = RequestDeadline.of(requestTimeout, requestDeadlineProperties);
+        return inventoryQueryService.getCustomerInventoryAsync(queryParams, ifNoneMatch)
+            .contextWrite(deadline.asContext());
+    }
+
+    /**
+     * Resolves the enrichments a partial inventory response was returned without.
+     * 
+     * <p>Takes the keys of the items' {@code missingEnrichments}: BANs for billing accounts and master site ids for
+     * locations. Only Account Management and GLM are called, through their caches, so re-enriching the items of a
+     * partial response is much cheaper than repeating the inventory query. Keys that still cannot be resolved are
+     * listed in {@code missingEnrichments} again.</p>
+     * 
+     * @param bans BANs whose billing account is missing
+     * @param masterSiteIds master site ids whose location is missing
+     * @param requestTimeout Optional time budget of the request, in milliseconds
+     * @return {@link Mono} of {@link ResponseEntity} containing the enrichments resolved
+     */
+    @Operation(
+        summary = InventoryApiDocumentation.GetEnrichment.SUMMARY,
+        description = InventoryApiDocumentation.GetEnrichment.DESCRIPTION,
+        operationId = InventoryApiDocumentation.GetEnrichment.OPERATION_ID
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = InventoryApiDocumentation.Responses.SUCCESS_200_DESCRIPTION,
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = GetEnrichmentResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = InventoryApiDocumentation.Responses.BAD_REQUEST_400_DESCRIPTION
+        )
+    })
+    @GetMapping(path = "/inventory/enrichment", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<GetEnrichmentResponse>> getInventoryEnrichment(
+            @Parameter(
+                name = "bans",
+                description = InventoryApiDocumentation.Parameters.BANS_DESCRIPTION,
+                in = ParameterIn.QUERY,
+                schema = @Schema(type = "array", implementation = String.class)
+            )
+            @RequestParam(name = "bans", required = false) java.util.List<String> bans,
+
+            @Parameter(
+                name = "masterSiteIds",
+                description = InventoryApiDocumentation.Parameters.MASTER_SITE_IDS_DESCRIPTION,
+                in = ParameterIn.QUERY,
+                schema = @Schema(type = "array", implementation = String.class)
+            )
+            @RequestParam(name = "masterSiteIds", required = false) java.util.List<String> masterSiteIds,
+
+            @Parameter(
+                name = RequestDeadline.HEADER,
+                description = InventoryApiDocumentation.Parameters.REQUEST_TIMEOUT_DESCRIPTION,
+                in = ParameterIn.HEADER
+            )
+            @RequestHeader(name = RequestDeadline.HEADER, required = false) Optional<Long> requestTimeout) {
+
+        logger.debug("Inventory enrichment - bans: {}, masterSiteIds: {}", bans, masterSiteIds);
+
+        RequestDeadline deadline = RequestDeadline.of(requestTimeout, requestDeadlineProperties);
+        return inventoryQueryService.getEnrichmentAsync(bans, masterSiteIds)
+            .map(ResponseEntity::ok)
+            .contextWrite(deadline.asContext());
+    }
+
+    /**
+     * Streams the complete inventory for the given customers as newline-delimited JSON.
+     * 
+     * <p>Intended for large exports: every {@code ServiceInventory} is written as its own JSON line as soon
+     * as it is enriched, while ServiceNow pages are walked in sequence. Memory use stays flat and the first
+     * bytes are sent after the first page, regardless of account size.</p>
+     * 
+     * @param customerNumbers List of customer numbers to export inventory for
+     * @param serviceType Optional service type filter
+     * @param serviceId Optional service ID filter
+     * @param pageSize Optional upstream page size used while walking ServiceNow (default: 100)
+     * @param requestTimeout Optional time budget of the export in milliseconds; exports have no deadline by default
+     * @return {@link Flux} of inventory items, serialized as {@code application/x-ndjson}
+     */
+    @Operation(
+        summary = InventoryApiDocumentation.ExportInventory.SUMMARY,
+        description = InventoryApiDocumentation.ExportInventory.DESCRIPTION,
+        operationId = InventoryApiDocumentation.ExportInventory.OPERATION_ID
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = InventoryApiDocumentation.Responses.SUCCESS_200_DESCRIPTION,
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = ServiceInventory.class)
+            )
+        )
+    })
+    @GetMapping(path = "/inventory/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ServiceInventory> exportCustomerInventory(
+            @Parameter(
+                name = "customerNumbers",
+                description = InventoryApiDocumentation.Parameters.CUSTOMER_NUMBERS_DESCRIPTION,
+                required = true,
+                in = ParameterIn.QUERY,
+                schema = @Schema(type = "array", implementation = String.class)
+            )
+            @RequestParam(name = "customerNumbers") java.util.List<String> customerNumbers,
+
+            @Parameter(
+                name = "serviceType",
+                description = InventoryApiDocumentation.Parameters.SERVICE_TYPE_DESCRIPTION,
+                example = "Internet"
+            )
+            @RequestParam(name = "serviceType", required = false) Optional<String> serviceType,
+
+            @Parameter(
+                name = "serviceId",
+                description = InventoryApiDocumentation.Parameters.SERVICE_ID_DESCRIPTION,
+                example = "SVC123456"
+            )
+            @RequestParam(name = "serviceId", required = false) Optional<String> serviceId,
+
+            @Parameter(
+                name = "pageSize",
+                description = InventoryApiDocumentation.Parameters.PAGE_SIZE_DESCRIPTION,
+                example = "100"
+            )
+            @RequestParam(name = "pageSize", required = false) Optional<Integer> pageSize,
+
+            @Parameter(
+                name = RequestDeadline.HEADER,
+                description = InventoryApiDocumentation.Parameters.REQUEST_TIMEOUT_DESCRIPTION,
+                in = ParameterIn.HEADER
+            )
+            @RequestHeader(name = RequestDeadline.HEADER, required = false) Optional<Long> requestTimeout) {
+
+        var queryParams = new InventoryQueryParams(
+            customerNumbers,
+            serviceType,
+            serviceId,
+            Optional.empty(),
+            pageSize
+        );
+
+        logger.debug("Inventory export - {}", queryParams.getQuerySummary());
+
+        Flux<ServiceInventory> inventory = inventoryQueryService.streamCustomerInventory(queryParams);
+        // an export walks every page, so it is only bounded when the caller asks for it
+        return requestTimeout.isPresent()
+            ? inventory.contextWrite(RequestDeadline.of(requestTimeout, requestDeadlineProperties).asContext())
+            : inventory;
     }
 }
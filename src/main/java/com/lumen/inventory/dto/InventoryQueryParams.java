@@ -1,7 +1,11 @@
 package com.lumen.inventory.dto;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 /**
@@ -9,32 +13,128 @@ import io.swagger.v3.oas.annotations.media.Schema;
  */
 @Schema(
     description = "Query parameters for inventory retrieval operations.",
-    example = "{\n  \"customerNumbers\": [\"15182\", \"6887\", \"2-LK2D1Y\"],\n  \"serviceType\": \"Internet\",\n  \"serviceId\": \"SVC123456\"\n}"
+    example = "{\n  \"customerNumbers\": [\"15182\", \"6887\", \"2-LK2D1Y\"],\n  \"serviceType\": \"Internet\",\n  \"serviceId\": \"SVC123456\",\n  \"pageNumber\": 1,\n  \"pageSize\": 20\n}"
 )
 public record InventoryQueryParams(
     @Schema(description = "List of customer numbers to query inventory for")
     List<String> customerNumbers,
 
-    @Schema(description = "Service type filter", example = "Internet")
+    @Schema(description = "Service type filter: Internet, Port, a comma-separated list of both, or All (default)", example = "Internet")
     Optional<String> serviceType,
 
     @Schema(description = "Service ID filter", example = "SVC123456")
-    Optional<String> serviceId
+    Optional<String> serviceId,
+
+    @Schema(description = "Page number for pagination (1-based)", example = "1")
+    Optional<Integer> pageNumber,
+
+    @Schema(description = "Number of records per page (max 100)", example = "20")
+    Optional<Integer> pageSize
 ) {
     public static final String SERVICE_TYPE_INTERNET = "Internet";
     public static final String SERVICE_TYPE_PORT = "Port";
+    public static final String SERVICE_TYPE_ALL = "All";
+    /** Every supported service type, in the order their results are merged. */
+    public static final List<String> SERVICE_TYPES = List.of(SERVICE_TYPE_INTERNET, SERVICE_TYPE_PORT);
+    public static final int DEFAULT_PAGE_NUMBER = 1;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
 
     public InventoryQueryParams {
         if (customerNumbers == null || customerNumbers.isEmpty()) {
             throw new IllegalArgumentException("At least one customer number is required");
         }
-        // Validate serviceType if present
-        if (serviceType != null && serviceType.isPresent()) {
-            String type = serviceType.get();
-            if (!SERVICE_TYPE_INTERNET.equalsIgnoreCase(type) && !SERVICE_TYPE_PORT.equalsIgnoreCase(type)) {
-                throw new IllegalArgumentException("Invalid serviceType: " + type + ". Allowed values: Internet, Port");
+        // Validate serviceType if present (a single type, a comma-separated list or All)
+        serviceType = serviceType != null ? serviceType : Optional.empty();
+        if (serviceType.isPresent()) {
+            resolveServiceTypes(serviceType.get());
+        }
+        // Validate pagination if present
+        pageNumber = pageNumber != null ? pageNumber : Optional.empty();
+        pageSize = pageSize != null ? pageSize : Optional.empty();
+        if (pageNumber.isPresent() && pageNumber.get() < 1) {
+            throw new IllegalArgumentException("Invalid pageNumber: " + pageNumber.get() + ". Must be 1 or greater");
+        }
+        if (pageSize.isPresent() && (pageSize.get() < 1 || pageSize.get() > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("Invalid pageSize: " + pageSize.get() + ". Allowed range: 1-" + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Creates query parameters without pagination; the default page is used.
+     */
+    public InventoryQueryParams(List<String> customerNumbers, Optional<String> serviceType, Optional<String> serviceId) {
+        this(customerNumbers, serviceType, serviceId, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Returns the requested service types in their canonical spelling and merge order.
+     * A missing serviceType or {@link #SERVICE_TYPE_ALL} selects every type in {@link #SERVICE_TYPES}.
+     */
+    public List<String> serviceTypes() {
+        return serviceType.map(InventoryQueryParams::resolveServiceTypes).orElse(SERVICE_TYPES);
+    }
+
+    /**
+     * Returns the same query restricted to a single service type.
+     */
+    public InventoryQueryParams withServiceType(String type) {
+        return new InventoryQueryParams(customerNumbers, Optional.of(type), serviceId, pageNumber, pageSize);
+    }
+
+    private static List<String> resolveServiceTypes(String serviceTypeList) {
+        Set<String> requested = new HashSet<>();
+        for (String type : serviceTypeList.split(",")) {
+            String trimmed = type.trim();
+            if (SERVICE_TYPE_ALL.equalsIgnoreCase(trimmed)) {
+                requested.addAll(SERVICE_TYPES);
+            } else if (SERVICE_TYPE_INTERNET.equalsIgnoreCase(trimmed)) {
+                requested.add(SERVICE_TYPE_INTERNET);
+            } else if (SERVICE_TYPE_PORT.equalsIgnoreCase(trimmed)) {
+                requested.add(SERVICE_TYPE_PORT);
+            } else {
+                throw new IllegalArgumentException("Invalid serviceType: " + trimmed + ". Allowed values: Internet, Port, All");
             }
         }
+        return SERVICE_TYPES.stream().filter(requested::contains).toList();
+    }
+
+    /**
+     * Returns the requested page number, or {@link #DEFAULT_PAGE_NUMBER}.
+     */
+    public int resolvedPageNumber() {
+        return pageNumber.orElse(DEFAULT_PAGE_NUMBER);
+    }
+
+    /**
+     * Returns the requested page size, or {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public int resolvedPageSize() {
+        return pageSize.orElse(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Returns an equivalent query in canonical form: customer numbers trimmed, de-duplicated and sorted,
+     * serviceType resolved to its canonical comma-separated list of types, serviceId lower-cased (it is matched case-insensitively) and
+     * pagination resolved to its effective values. Equivalent queries therefore compare equal.
+     */
+    public InventoryQueryParams normalized() {
+        List<String> normalizedCustomerNumbers = customerNumbers.stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .distinct()
+            .sorted()
+            .toList();
+        Optional<String> normalizedServiceType = Optional.of(String.join(",", serviceTypes()));
+        Optional<String> normalizedServiceId = serviceId == null ? Optional.empty() : serviceId
+            .map(id -> id.trim().toLowerCase(Locale.ROOT));
+        return new InventoryQueryParams(
+            normalizedCustomerNumbers,
+            normalizedServiceType,
+            normalizedServiceId,
+            Optional.of(resolvedPageNumber()),
+            Optional.of(resolvedPageSize())
+        );
     }
 
     /**
@@ -45,6 +145,8 @@ public record InventoryQueryParams(
         summary.append("customerNumbers=").append(customerNumbers);
         summary.append(", serviceType=").append(serviceType.orElse("N/A"));
         summary.append(", serviceId=").append(serviceId.orElse("N/A"));
+        summary.append(", pageNumber=").append(resolvedPageNumber());
+        summary.append(", pageSize=").append(resolvedPageSize());
         return summary.toString();
     }
 }
@@ -0,0 +1,22 @@
+package com.lumen.inventory.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * EnrichmentResult
+ *
+ * An enrichment resolved by the {@code /inventory/enrichment} endpoint for the key of a {@link MissingEnrichment}:
+ * {@code billingAccount} and {@code customerNumber} for a BAN, {@code location} for a master site id.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnrichmentResult {
+    private String enrichment = null;
+    private String key = null;
+    private BillingAccountResponse billingAccount = null;
+    private String customerNumber = null;
+    private Address location = null;
+}
@@ -0,0 +1,20 @@
+package com.lumen.inventory.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * EnrichmentStatus
+ *
+ * Summary of one enrichment stage of a partial response: how many inventory items were returned without it.
+ * The items themselves list the enrichments they are missing in {@code missingEnrichments}.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnrichmentStatus {
+    private String enrichment = null;
+    private Integer missingItems = null;
+    private String message = null;
+}
@@ -0,0 +1,20 @@
+package com.lumen.inventory.dto.responses;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * Data Transfer Object for the follow-up enrichment of a partial inventory response.
+ * <p>Lists the enrichments resolved for the requested keys; keys still not resolved are listed in
+ * {@code missingEnrichments} and {@code partial} is set.</p>
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GetEnrichmentResponse {
+    private List<EnrichmentResult> enrichments;
+    private List<MissingEnrichment> missingEnrichments;
+    private Boolean partial;
+}
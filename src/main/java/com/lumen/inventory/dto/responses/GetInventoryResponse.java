@@ -14,6 +14,9 @@ public class GetInventoryResponse {
         private int pageSize;
         private int resultCount;
     private List<PaginationResponse> pagination;
+    private List<InventoryError> errors;
+    private Boolean partial;
+    private List<EnrichmentStatus> enrichmentStatus;
 
     public void setPagination(List<PaginationResponse> pagination) {
         this.pagination = pagination;
@@ -0,0 +1,20 @@
+package com.lumen.inventory.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * InventoryError
+ *
+ * Describes a part of a multi service-type query that could not be served, so the data that was
+ * retrieved successfully can still be returned.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryError {
+    private String serviceType = null;
+    private Integer status = null;
+    private String message = null;
+}
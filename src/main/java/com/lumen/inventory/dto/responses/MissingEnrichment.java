@@ -0,0 +1,31 @@
+package com.lumen.inventory.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * MissingEnrichment
+ *
+ * An enrichment an inventory item was returned without because its upstream lookup failed or ran out of time,
+ * with the key it can be resolved by later through the {@code /inventory/enrichment} endpoint.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MissingEnrichment {
+    /** Billing account and customer number from Account Management; the key is the BAN. */
+    public static final String BILLING_ACCOUNT = "billingAccount";
+    /** Site address from GLM; the key is the master site id. */
+    public static final String LOCATION = "location";
+
+    private String enrichment = null;
+    private String key = null;
+
+    public static MissingEnrichment of(String enrichment, String key) {
+        MissingEnrichment missingEnrichment = new MissingEnrichment();
+        missingEnrichment.setEnrichment(enrichment);
+        missingEnrichment.setKey(key);
+        return missingEnrichment;
+    }
+}
@@ -1,12 +1,14 @@
 package com.lumen.inventory.dto.responses;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 /**
  * PaginationResponse
  *
  * Mirrors the structure of the NaaS PaginationResponse VO for inventory API responses.
+ * In a multi service-type response there is one entry per service type, named by {@code serviceType}.
  */
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -14,4 +16,6 @@ public class PaginationResponse {
     private Integer pageNumber = null;
     private Integer pageSize = null;
     private Integer totalRecords = null;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String serviceType = null;
 }
@@ -32,6 +32,7 @@ public class ServiceInventory {
      private List<ProductPrice> productPrice;
      private Product product;
      private String customerNumber;
+     private List<MissingEnrichment> missingEnrichments;
 /**
  * Data Transfer Object for Service Inventory Item.
  * <p>Represents a single inventory item in inventory queries.</p>
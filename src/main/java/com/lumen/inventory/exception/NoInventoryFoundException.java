@@ -0,0 +1,15 @@
+package com.lumen.inventory.exception;
+
+import com.lumen.error.enums.ErrorCode;
+import com.lumen.error.exception.ProcessingException;
+
+/**
+ * {@link ProcessingException} with {@link ErrorCode#NOT_FOUND} raised when the upstream holds no inventory for the
+ * query. It is not a failure of the upstream: multi service-type queries treat it as an empty result for that type.
+ */
+public class NoInventoryFoundException extends ProcessingException {
+
+    public NoInventoryFoundException(String message) {
+        super(ErrorCode.NOT_FOUND, message);
+    }
+}
@@ -22,7 +22,7 @@ public class SnowErrorHandler {
         String extractedMessage = extractErrorMessage(errorBody);
         return switch (statusCode) {
             case 400 -> new ProcessingException(ErrorCode.BAD_REQUEST, extractedMessage);
-            case 404 -> new ProcessingException(ErrorCode.NOT_FOUND, "No Record Found for the provided information");
+            case 404 -> new NoInventoryFoundException("No Record Found for the provided information");
             case 401 -> new ProcessingException(ErrorCode.UNAUTHORIZED, extractedMessage);
             case 500 -> new ProcessingException(ErrorCode.INTERNAL_SERVER_ERROR, "ServiceNow API internal server error");
             case 503 -> new ProcessingException(ErrorCode.SERVICE_UNAVAILABLE, "ServiceNow API service unavailable");
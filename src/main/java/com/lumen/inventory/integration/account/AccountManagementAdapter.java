@@ -1,45 +1,103 @@
 package com.lumen.inventory.integration.account;
 
 import com.lumen.account.management.service.AccountManagementService;
+import com.lumen.inventory.integration.resilience.RequestHedger;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.enrichement.EnrichmentExecutor;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Adapter for AccountManagementService interactions.
  */
 @Component
 public class AccountManagementAdapter {
+    private static final Logger log = LoggerFactory.getLogger(AccountManagementAdapter.class);
     private final AccountManagementService accountManagementService;
+    private final InventoryStageMetrics inventoryStageMetrics;
+    private final UpstreamGuard upstreamGuard;
+    private final RequestHedger requestHedger;
+    private final EnrichmentExecutor enrichmentExecutor;
 
-    public AccountManagementAdapter(AccountManagementService accountManagementService) {
+    public AccountManagementAdapter(AccountManagementService accountManagementService,
+                                    InventoryStageMetrics inventoryStageMetrics,
+                                    UpstreamGuard upstreamGuard,
+                                    RequestHedger requestHedger,
+                                    EnrichmentExecutor enrichmentExecutor) {
         this.accountManagementService = accountManagementService;
+        this.inventoryStageMetrics = inventoryStageMetrics;
+        this.upstreamGuard = upstreamGuard;
+        this.requestHedger = requestHedger;
+        this.enrichmentExecutor = enrichmentExecutor;
     }
 
     /**
-     * Calls AccountManagementService to get BAN mapping.
+     * Resolves a batch of BANs; this is what {@link BanMappingCache} calls for all the BANs it is missing.
+     * <p>
+     * The AccountManagementService client only offers the single-BAN {@code getBillingAccounts} request, so every
+     * BAN of the batch is still looked up with its own call. The calls run concurrently on the
+     * {@link EnrichmentExecutor}, bounded by {@code naas.inventory.max-concurrent-am-calls} like any other AM call.
+     * Once AM offers a multi-BAN request, it goes here and completes the futures of the whole batch from one answer.
+     * </p>
+     * @param bans Billing Account Numbers, without duplicates
+     * @param deadline the request deadline, or {@code null} for the AM timeout only; calls still waiting for a permit
+     *                 when it passes fail with {@link com.lumen.inventory.service.deadline.RequestDeadlineExceededException}
+     * @return a future per BAN, failed if its call failed; cancelling one interrupts its call
+     */
+    public Map<String, CompletableFuture<BillingAccountMapping>> getBanMappings(Collection<String> bans, RequestDeadline deadline) {
+        Map<String, CompletableFuture<BillingAccountMapping>> mappings = new LinkedHashMap<>();
+        for (String ban : bans) {
+            mappings.put(ban, enrichmentExecutor.submit(deadline, () -> getBanMapping(ban, deadline)));
+        }
+        return mappings;
+    }
+
+    /**
+     * Calls AccountManagementService to get BAN mapping; each call is timed as the {@code am.call} stage and goes
+     * through the AM bulkhead, timeout and circuit breaker of {@link UpstreamGuard}. A slow call is hedged by
+     * {@link RequestHedger} when AM hedging is enabled.
+     * @param ban Billing Account Number
+     * @return the BAN's billing account, or {@link BillingAccountMapping#NOT_FOUND} if AM has none
+     * @throws com.lumen.inventory.integration.resilience.UpstreamUnavailableException if the call was refused or timed out
+     */
+    public BillingAccountMapping getBanMapping(String ban) {
+        return getBanMapping(ban, null);
+    }
+
+    /**
+     * Same as {@link #getBanMapping(String)}, but the call is also abandoned when the request deadline passes.
      * @param ban Billing Account Number
-     * @return "invoiceDisplayNumber|customerNumber" or "|" if not found
+     * @param deadline the request deadline, or {@code null} for the AM timeout only
+     * @return the BAN's billing account, or {@link BillingAccountMapping#NOT_FOUND} if AM has none
+     * @throws com.lumen.inventory.integration.resilience.UpstreamUnavailableException if the call was refused or timed out
      */
-    public String getBanMapping(String ban) {
+    public BillingAccountMapping getBanMapping(String ban, RequestDeadline deadline) {
         Map<String, String> headers = new HashMap<>();
         headers.put("x-customer-number", ban);
-        var response = accountManagementService.getBillingAccounts(
-                headers,
-                Optional.empty(),
-                Optional.empty(),
-                Optional.empty(),
-                Optional.empty(),
-                Optional.empty(),
-                Optional.empty()
-        );
+        var response = inventoryStageMetrics.time(InventoryStageMetrics.AM_CALL, () -> requestHedger.hedge(UpstreamGuard.AM,
+                () -> upstreamGuard.guard(UpstreamGuard.AM, deadline,
+                        () -> accountManagementService.getBillingAccounts(
+                                headers,
+                                Optional.empty(),
+                                Optional.empty(),
+                                Optional.empty(),
+                                Optional.empty(),
+                                Optional.empty(),
+                                Optional.empty()
+                        ))));
         if (response != null && response.getBillingAccounts() != null && !response.getBillingAccounts().isEmpty()) {
             var billingAccount = response.getBillingAccounts().get(0);
-            String invoiceDisplayNumber = billingAccount.getId();
-            String customerNumber = response.getCustomerNumber();
-            return (invoiceDisplayNumber != null ? invoiceDisplayNumber : "") + "|" + (customerNumber != null ? customerNumber : "");
+            return new BillingAccountMapping(billingAccount.getId(), response.getCustomerNumber());
         }
-        return "|";
+        return BillingAccountMapping.NOT_FOUND;
     }
 }
@@ -0,0 +1,180 @@
+package com.lumen.inventory.integration.account;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.lumen.inventory.config.BanMappingCacheProperties;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.enrichement.EnrichmentExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Bounded, TTL-based cache in front of {@link AccountManagementAdapter}.
+ * <p>
+ * Resolved mappings are kept for {@code naas.inventory.am-cache.ttl}, "not found" results
+ * ({@link BillingAccountMapping#NOT_FOUND}) only for the shorter {@code negative-ttl}. Entries older than
+ * {@code refresh-after} are reloaded in the background on their next read, so BANs that are polled all day never
+ * expire on the request path. Those reloads are submitted to the {@link EnrichmentExecutor} and so count against
+ * {@code naas.inventory.max-concurrent-am-calls} like any other AM call; a burst of refreshes queues for permits
+ * instead of filling the AM bulkhead ahead of request-path calls.
+ * Hit, miss and eviction counters are published under the {@code am.ban.mapping} cache name.
+ * </p>
+ * <p>
+ * Many BANs are first read with {@link #getCachedBanMappings(Iterable)}, which returns the cached ones without
+ * calling AM; the missing ones are then loaded with {@link #getBanMappings(Collection, RequestDeadline)} through a
+ * single {@link AccountManagementAdapter#getBanMappings} batch.
+ * </p>
+ * <p>
+ * A miss is loaded on the calling thread, which already holds an AM permit of the {@link EnrichmentExecutor}, but
+ * outside the cache's own locking: the cache only records a pending future for the BAN, the AM call completes it.
+ * A blocking load inside the cache's compute would hold a monitor for the whole AM call and pin the virtual thread
+ * to its carrier, capping AM concurrency at the number of carriers. Concurrent lookups of the same BAN wait on the
+ * pending future, which parks them without pinning.
+ * </p>
+ */
+@Component
+public class BanMappingCache {
+    private static final String CACHE_NAME = "am.ban.mapping";
+
+    private final AccountManagementAdapter accountManagementAdapter;
+    private final AsyncLoadingCache<String, BillingAccountMapping> cache;
+
+    public BanMappingCache(AccountManagementAdapter accountManagementAdapter,
+                           BanMappingCacheProperties properties,
+                           EnrichmentExecutor enrichmentExecutor,
+                           MeterRegistry meterRegistry) {
+        this.accountManagementAdapter = accountManagementAdapter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new BanMappingExpiry(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<BillingAccountMapping> asyncLoad(String ban, Executor executor) {
+                        return enrichmentExecutor.submit(() -> accountManagementAdapter.getBanMapping(ban));
+                    }
+
+                    @Override
+                    public CompletableFuture<BillingAccountMapping> asyncReload(String ban, BillingAccountMapping oldMapping,
+                                                                                Executor executor) {
+                        return enrichmentExecutor.submit(() -> accountManagementAdapter.getBanMapping(ban));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached BAN mapping, calling Account Management only on a miss.
+     * @param ban Billing Account Number
+     * @return the BAN's billing account, or {@link BillingAccountMapping#NOT_FOUND} if AM has none
+     */
+    public BillingAccountMapping getBanMapping(String ban) {
+        return getBanMapping(ban, null);
+    }
+
+    /**
+     * Same as {@link #getBanMapping(String)}, but a miss is loaded within the request deadline.
+     * @param ban Billing Account Number
+     * @param deadline the request deadline, or {@code null} for the AM timeout only
+     * @return the BAN's billing account, or {@link BillingAccountMapping#NOT_FOUND} if AM has none
+     */
+    public BillingAccountMapping getBanMapping(String ban, RequestDeadline deadline) {
+        CompletableFuture<BillingAccountMapping> pending = new CompletableFuture<>();
+        CompletableFuture<BillingAccountMapping> mapping = cache.get(ban, (key, executor) -> pending);
+        if (mapping == pending) {
+            try {
+                pending.complete(accountManagementAdapter.getBanMapping(ban, deadline));
+            } catch (RuntimeException | Error e) {
+                // a failed future is dropped from the cache, so the next lookup calls AM again
+                pending.completeExceptionally(e);
+            }
+        }
+        try {
+            return mapping.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Returns the BAN mappings, loading the BANs missing from the cache in one Account Management batch. BANs another
+     * caller is already loading are not requested again; their futures complete with that caller's load.
+     * <p>
+     * Like {@link #getBanMapping(String, RequestDeadline)}, the cache only records a pending future for each BAN of
+     * the batch, so no lock is held while AM answers.
+     * </p>
+     * @param bans Billing Account Numbers, without duplicates
+     * @param deadline the request deadline, or {@code null} for the AM timeout only
+     * @return a future per BAN; cancelling the future of a BAN loaded by this batch interrupts its AM call (which
+     *         fails it for every caller), cancelling that of a BAN loaded by another caller only stops waiting for it
+     */
+    public Map<String, CompletableFuture<BillingAccountMapping>> getBanMappings(Collection<String> bans, RequestDeadline deadline) {
+        Map<String, CompletableFuture<BillingAccountMapping>> mappings = new LinkedHashMap<>();
+        Map<String, CompletableFuture<BillingAccountMapping>> pendingLoads = new LinkedHashMap<>();
+        for (String ban : bans) {
+            CompletableFuture<BillingAccountMapping> pending = new CompletableFuture<>();
+            CompletableFuture<BillingAccountMapping> mapping = cache.get(ban, (key, executor) -> pending);
+            if (mapping == pending) {
+                pendingLoads.put(ban, pending);
+            } else {
+                mappings.put(ban, mapping.copy());
+            }
+        }
+        if (!pendingLoads.isEmpty()) {
+            accountManagementAdapter.getBanMappings(pendingLoads.keySet(), deadline).forEach((ban, load) -> {
+                CompletableFuture<BillingAccountMapping> pending = pendingLoads.get(ban);
+                // a failed future is dropped from the cache, so the next lookup calls AM again
+                load.whenComplete((mapping, e) -> {
+                    if (e == null) {
+                        pending.complete(mapping);
+                    } else {
+                        pending.completeExceptionally(e);
+                    }
+                });
+                mappings.put(ban, load);
+            });
+        }
+        return mappings;
+    }
+
+    /**
+     * Returns the BANs that are cached, without calling Account Management.
+     * @param bans Billing Account Numbers
+     * @return the cached billing accounts, by BAN
+     */
+    public Map<String, BillingAccountMapping> getCachedBanMappings(Iterable<String> bans) {
+        return cache.synchronous().getAllPresent(bans);
+    }
+
+    /**
+     * Expires "not found" results sooner than resolved mappings; reads never extend an entry's lifetime.
+     */
+    private record BanMappingExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, BillingAccountMapping> {
+
+        @Override
+        public long expireAfterCreate(String ban, BillingAccountMapping mapping, long currentTime) {
+            return mapping.isNotFound() ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String ban, BillingAccountMapping mapping, long currentTime, long currentDuration) {
+            return expireAfterCreate(ban, mapping, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String ban, BillingAccountMapping mapping, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.lumen.inventory.integration.account;
+
+/**
+ * Billing account details Account Management returns for a BAN.
+ * <p>
+ * Immutable, so one instance is shared by the BAN mapping cache and every inventory item of the BAN. BANs AM
+ * does not know resolve to the shared {@link #NOT_FOUND} instance.
+ * </p>
+ *
+ * @param invoiceDisplayNumber the invoice display number (billing account id), empty if AM returned none
+ * @param customerNumber the customer number, empty if AM returned none
+ */
+public record BillingAccountMapping(String invoiceDisplayNumber, String customerNumber) {
+
+    /**
+     * Result for a BAN Account Management has no billing account for.
+     */
+    public static final BillingAccountMapping NOT_FOUND = new BillingAccountMapping("", "");
+
+    public BillingAccountMapping {
+        invoiceDisplayNumber = invoiceDisplayNumber != null ? invoiceDisplayNumber : "";
+        customerNumber = customerNumber != null ? customerNumber : "";
+    }
+
+    /**
+     * Whether this is the {@link #NOT_FOUND} result, or a billing account without any details, which is treated alike.
+     */
+    public boolean isNotFound() {
+        return this == NOT_FOUND || NOT_FOUND.equals(this);
+    }
+}
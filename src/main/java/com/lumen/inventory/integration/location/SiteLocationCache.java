@@ -0,0 +1,135 @@
+package com.lumen.inventory.integration.location;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lumen.glm.dto.ServiceLocation;
+import com.lumen.glm.service.GLMRestClient;
+import com.lumen.inventory.config.SiteLocationCacheProperties;
+import com.lumen.inventory.integration.resilience.RequestHedger;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache of GLM site locations keyed by case-normalized master site id.
+ * <p>
+ * Site addresses rarely change, so entries live for {@code naas.inventory.glm-cache.ttl} and the cache is bounded
+ * by {@code maximum-size}. Lookups are bulk: the ids already cached are served from memory and all missing ids go to
+ * GLM in one batched {@link GLMRestClient#getLocationInformationForList(List)} call. Concurrent requests for the same
+ * id share one in-flight GLM call. Ids GLM does not return are not cached. GLM calls go through the GLM bulkhead,
+ * timeout and circuit breaker of {@link UpstreamGuard}; nothing is cached for a refused or failed call. A slow GLM
+ * call is hedged by {@link RequestHedger} when GLM hedging is enabled.
+ * </p>
+ * <p>
+ * The GLM call runs with the Reactor context of the request that started it, so it is bounded by that request's
+ * deadline; requests joining an in-flight call share it, and with it that deadline.
+ * </p>
+ * <ul>
+ *   <li>{@code cache.*} meters under the {@code glm.site.location} cache name, plus {@code inventory.glm.cache.hit.ratio}</li>
+ *   <li>{@code inventory.glm.batch.size} - number of ids sent to GLM per batched call</li>
+ *   <li>{@code inventory.stage.duration{stage=glm.call}} - latency of each batched GLM call</li>
+ * </ul>
+ */
+@Component
+public class SiteLocationCache {
+    private static final String CACHE_NAME = "glm.site.location";
+
+    private final GLMRestClient glmRestClient;
+    private final AsyncCache<String, ServiceLocation> cache;
+    private final DistributionSummary batchSize;
+    private final InventoryStageMetrics inventoryStageMetrics;
+    private final UpstreamGuard upstreamGuard;
+    private final RequestHedger requestHedger;
+
+    public SiteLocationCache(GLMRestClient glmRestClient,
+                             SiteLocationCacheProperties properties,
+                             MeterRegistry meterRegistry,
+                             InventoryStageMetrics inventoryStageMetrics,
+                             UpstreamGuard upstreamGuard,
+                             RequestHedger requestHedger) {
+        this.glmRestClient = glmRestClient;
+        this.inventoryStageMetrics = inventoryStageMetrics;
+        this.upstreamGuard = upstreamGuard;
+        this.requestHedger = requestHedger;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("inventory.glm.cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .description("Share of master site id lookups served from the GLM location cache")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("inventory.glm.batch.size")
+                .description("Master site ids sent to GLM per batched call")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the GLM site locations for the given master site ids, calling GLM only for ids not cached yet.
+     *
+     * @param masterSiteIds master site ids, in any case
+     * @return Mono emitting the site locations found (ids unknown to GLM are simply absent)
+     */
+    public Mono<List<ServiceLocation>> getLocations(List<String> masterSiteIds) {
+        Map<String, String> requestedIds = new LinkedHashMap<>();
+        for (String masterSiteId : masterSiteIds) {
+            if (masterSiteId != null) {
+                requestedIds.putIfAbsent(normalize(masterSiteId), masterSiteId);
+            }
+        }
+        if (requestedIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> cache.getAll(requestedIds.keySet(),
+                        (missingIds, executor) -> fetchFromGlm(missingIds, requestedIds, context))))
+                .map(locations -> new ArrayList<>(locations.values()));
+    }
+
+    private CompletableFuture<Map<String, ServiceLocation>> fetchFromGlm(Set<? extends String> missingIds,
+                                                                        Map<String, String> requestedIds,
+                                                                        ContextView context) {
+        List<String> glmIds = new ArrayList<>(missingIds.size());
+        for (String missingId : missingIds) {
+            glmIds.add(requestedIds.get(missingId));
+        }
+        batchSize.record(glmIds.size());
+        return inventoryStageMetrics.time(InventoryStageMetrics.GLM_CALL,
+                        requestHedger.hedgeMono(UpstreamGuard.GLM,
+                                () -> upstreamGuard.guard(UpstreamGuard.GLM, glmRestClient.getLocationInformationForList(glmIds))))
+                .defaultIfEmpty(List.of())
+                .map(glmResponses -> {
+                    Map<String, ServiceLocation> found = new HashMap<>(glmResponses.size() * 2);
+                    for (ServiceLocation location : glmResponses) {
+                        if (location != null && location.getMasterSiteId() != null) {
+                            String key = normalize(location.getMasterSiteId());
+                            if (missingIds.contains(key)) {
+                                found.putIfAbsent(key, location);
+                            }
+                        }
+                    }
+                    return found;
+                })
+                .contextWrite(context)
+                .toFuture();
+    }
+
+    private static String normalize(String masterSiteId) {
+        return masterSiteId.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,292 @@
+package com.lumen.inventory.integration.resilience;
+
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for AM and GLM, to cut the tail latency a single slow call adds to a fan-out.
+ * <p>
+ * When hedging is enabled for an upstream ({@code naas.inventory.upstream.<upstream>.hedge.enabled}), a call that
+ * has not answered after the configured latency percentile of recent calls is sent a second time; the first
+ * successful answer wins and a failed attempt only fails the call if the other one fails too. Calls failing before
+ * the hedge delay are not hedged, and the attempt that loses is cancelled. Hedges draw on a token budget refilled
+ * by {@code budget-percent} of every call and holding at most {@code max-burst} hedges, so they add at most that
+ * share of load even when the upstream slows down as a whole.
+ * </p>
+ * <p>
+ * Each attempt goes through {@link UpstreamGuard} on its own, so hedges count against the upstream's bulkhead and
+ * circuit breaker like any other call.
+ * </p>
+ * <ul>
+ *   <li>{@code inventory.hedge.requests{upstream, outcome=fired|won|denied}} - hedges sent, hedges that answered
+ *       first, and hedges not sent because the budget was exhausted</li>
+ *   <li>{@code inventory.hedge.primary.latency{upstream}} - latency of the first attempts, whose percentile sets the
+ *       hedge delay; a first attempt cancelled because its hedge won counts with the time it had taken so far</li>
+ * </ul>
+ */
+@Component
+public class RequestHedger implements AutoCloseable {
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Hedge> hedges = new HashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RequestHedger(UpstreamResilienceProperties properties, MeterRegistry meterRegistry) {
+        register(UpstreamGuard.AM, properties.getAm().getHedge(), meterRegistry);
+        register(UpstreamGuard.GLM, properties.getGlm().getHedge(), meterRegistry);
+    }
+
+    /**
+     * Runs a blocking call, hedging it if it is slow and hedging is enabled for the upstream. The losing attempt, or
+     * both if the caller is interrupted, is cancelled and its thread interrupted.
+     *
+     * @param upstream {@link UpstreamGuard#AM} or {@link UpstreamGuard#GLM}
+     * @param call the call; invoked a second time for a hedge
+     * @return the first successful answer
+     */
+    public <T> T hedge(String upstream, Supplier<T> call) {
+        Hedge hedge = hedges.get(upstream);
+        if (hedge == null) {
+            return call.get();
+        }
+        hedge.onCall();
+        CompletableFuture<T> primary = hedge.timed(start(call));
+        CompletableFuture<T> secondary = null;
+        try {
+            try {
+                return primary.get(hedge.delayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!hedge.tryFire()) {
+                    return primary.get();
+                }
+                secondary = start(call);
+                return firstSuccessful(primary, secondary, hedge).get();
+            }
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            primary.cancel(true);
+            if (secondary != null) {
+                secondary.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Reactive variant of {@link #hedge(String, Supplier)}; the losing attempt is cancelled.
+     *
+     * @param upstream {@link UpstreamGuard#AM} or {@link UpstreamGuard#GLM}
+     * @param call supplies the call; invoked a second time for a hedge
+     * @return the first successful answer
+     */
+    public <T> Mono<T> hedgeMono(String upstream, Supplier<Mono<T>> call) {
+        Hedge hedge = hedges.get(upstream);
+        if (hedge == null) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            hedge.onCall();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            // fired when the primary fails, so a failure inside the hedge delay is reported at once instead of
+            // after the delay has run out
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            long start = System.nanoTime();
+            Mono<T> primary = Mono.defer(call)
+                    .doOnSuccess(value -> hedge.primaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnCancel(() -> hedge.primaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> {
+                        primaryError.set(e);
+                        primaryFailed.tryEmitEmpty();
+                    });
+            Mono<T> secondary = Mono.delay(Duration.ofNanos(hedge.delayNanos()))
+                    .takeUntilOther(primaryFailed.asMono())
+                    .flatMap(tick -> hedge.tryFire()
+                            ? Mono.defer(call).doOnSuccess(value -> hedge.won.increment())
+                            : Mono.<T>empty());
+            return Mono.firstWithValue(primary, secondary)
+                    // both attempts failed, or the primary failed before a hedge was sent: report the primary's error
+                    .onErrorMap(NoSuchElementException.class, e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void register(String upstream, UpstreamResilienceProperties.Hedge settings, MeterRegistry meterRegistry) {
+        if (settings.isEnabled()) {
+            hedges.put(upstream, new Hedge(upstream, settings, meterRegistry));
+        }
+    }
+
+    /**
+     * Starts an attempt on its own virtual thread; unlike {@link CompletableFuture#supplyAsync}, cancelling the
+     * returned future interrupts the attempt.
+     */
+    private <T> CompletableFuture<T> start(Supplier<T> call) {
+        CompletableFuture<T> attempt = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                attempt.complete(call.get());
+            } catch (Throwable e) {
+                attempt.completeExceptionally(e);
+            }
+        });
+        attempt.whenComplete((value, error) -> {
+            if (attempt.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return attempt;
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> secondary, Hedge hedge) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                winner.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        secondary.whenComplete((value, error) -> {
+            if (error == null) {
+                if (winner.complete(value)) {
+                    hedge.won.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(primary.isCompletedExceptionally() ? primary.exceptionNow() : error);
+            }
+        });
+        return winner;
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new CompletionException(error);
+    }
+
+    /**
+     * Hedging state of one upstream: delay, budget and meters.
+     */
+    private static final class Hedge {
+        private final UpstreamResilienceProperties.Hedge settings;
+        private final Timer primaryLatency;
+        private final Counter fired;
+        private final Counter won;
+        private final Counter denied;
+        /** Budget in hundredths of a hedge: every call adds {@code budgetPercent}, every hedge costs 100. */
+        private final AtomicInteger budget = new AtomicInteger();
+        private final int maxBudget;
+        private volatile long delayNanos;
+        private volatile long delayComputedAt;
+
+        Hedge(String upstream, UpstreamResilienceProperties.Hedge settings, MeterRegistry meterRegistry) {
+            this.settings = settings;
+            this.maxBudget = Math.max(1, settings.getMaxBurst()) * 100;
+            this.delayNanos = settings.getInitialDelay().toNanos();
+            this.delayComputedAt = System.nanoTime();
+            this.primaryLatency = Timer.builder("inventory.hedge.primary.latency")
+                    .description("Latency of first attempts of hedgeable upstream calls")
+                    .tag("upstream", upstream)
+                    .publishPercentiles(settings.getPercentile())
+                    .register(meterRegistry);
+            this.fired = counter(meterRegistry, upstream, "fired", "Hedged requests sent");
+            this.won = counter(meterRegistry, upstream, "won", "Hedged requests that answered before the original call");
+            this.denied = counter(meterRegistry, upstream, "denied", "Hedged requests not sent because the hedge budget was exhausted");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String upstream, String outcome, String description) {
+            return Counter.builder("inventory.hedge.requests")
+                    .description(description)
+                    .tag("upstream", upstream)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        void onCall() {
+            budget.accumulateAndGet(settings.getBudgetPercent(), (current, refill) -> Math.min(maxBudget, current + refill));
+        }
+
+        boolean tryFire() {
+            int current;
+            do {
+                current = budget.get();
+                if (current < 100) {
+                    denied.increment();
+                    return false;
+                }
+            } while (!budget.compareAndSet(current, current - 100));
+            fired.increment();
+            return true;
+        }
+
+        /**
+         * Records the first attempt's latency once it answers, or the time it had taken when it is cancelled.
+         *
+         * @return the attempt itself, so it can still be cancelled
+         */
+        <T> CompletableFuture<T> timed(CompletableFuture<T> primary) {
+            long start = System.nanoTime();
+            primary.whenComplete((value, error) -> {
+                if (error == null || primary.isCancelled()) {
+                    primaryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+            return primary;
+        }
+
+        /**
+         * The configured percentile of recent first-attempt latencies (at least {@code minDelay}), recomputed at
+         * most once a second; {@code initialDelay} until enough calls were measured.
+         */
+        long delayNanos() {
+            long now = System.nanoTime();
+            if (now - delayComputedAt >= DELAY_REFRESH_NANOS) {
+                delayComputedAt = now;
+                if (primaryLatency.count() >= settings.getMinimumSamples()) {
+                    ValueAtPercentile[] percentiles = primaryLatency.takeSnapshot().percentileValues();
+                    if (percentiles.length > 0) {
+                        delayNanos = Math.max(settings.getMinDelay().toNanos(), (long) percentiles[0].value(TimeUnit.NANOSECONDS));
+                    }
+                }
+            }
+            return delayNanos;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.lumen.inventory.integration.resilience;
+
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead, timeout and circuit breaker per upstream, so one slow or failing dependency cannot tie up the service.
+ * <p>
+ * Every call to an upstream client goes through {@link #guard(String, Mono)} (reactive clients) or
+ * {@link #guard(String, RequestDeadline, Supplier)} (blocking clients), which
+ * </p>
+ * <ul>
+ *   <li>rejects the call when {@code max-concurrent-calls} calls to the upstream are already in flight and none
+ *       finishes within {@code max-wait} (or before the request deadline, if that comes first); the wait polls for a
+ *       free permission, so it ties up no thread on the reactive path,</li>
+ *   <li>abandons it after {@code timeout}, or earlier when the request deadline leaves less than that; a blocking
+ *       call runs on the caller's thread, which a shared watchdog interrupts,</li>
+ *   <li>rejects it at once while the upstream's circuit is open, i.e. after its recent failure rate (timeouts
+ *       included) crossed {@code failure-rate-threshold}.</li>
+ * </ul>
+ * <p>
+ * Only the upstream's own {@code timeout} counts as a failure for the circuit breaker: a call cut short by the
+ * request deadline says nothing about the upstream's health, and releases its permission unrecorded.
+ * </p>
+ * <p>
+ * A call refused or abandoned for any of these reasons fails with {@link UpstreamUnavailableException}; callers
+ * decide whether that fails the request (SNOW, Resource API) or leaves the enrichment out (AM, GLM). Settings come from
+ * {@link UpstreamResilienceProperties}; circuit breaker and bulkhead state is published through the
+ * {@code resilience4j.circuitbreaker.*} and {@code resilience4j.bulkhead.*} meters, tagged with the upstream name.
+ * </p>
+ */
+@Component
+public class UpstreamGuard implements AutoCloseable {
+    public static final String SNOW = "snow";
+    public static final String AM = "am";
+    public static final String GLM = "glm";
+    public static final String RESOURCE_API = "resource-api";
+
+    /** How often a call waiting for the bulkhead tries again. */
+    private static final Duration PERMISSION_POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Map<String, Guard> guards;
+    private final ScheduledThreadPoolExecutor watchdog;
+
+    public UpstreamGuard(UpstreamResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.watchdog = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().name("upstream-guard-watchdog").daemon().factory());
+        // blocking calls almost always finish before their timeout; do not keep their cancelled timers queued
+        this.watchdog.setRemoveOnCancelPolicy(true);
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        this.guards = Map.of(
+                SNOW, guard(SNOW, properties.getSnow(), circuitBreakerRegistry, bulkheadRegistry),
+                AM, guard(AM, properties.getAm(), circuitBreakerRegistry, bulkheadRegistry),
+                GLM, guard(GLM, properties.getGlm(), circuitBreakerRegistry, bulkheadRegistry),
+                RESOURCE_API, guard(RESOURCE_API, properties.getResourceApi(), circuitBreakerRegistry, bulkheadRegistry));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Guards a reactive upstream call. When the request deadline in the subscriber's context leaves less than the
+     * upstream's timeout, the call is cancelled when it passes instead.
+     *
+     * @param upstream one of {@link #SNOW}, {@link #AM}, {@link #GLM}, {@link #RESOURCE_API}
+     * @param call the call; it is subscribed to only if the bulkhead and circuit breaker let it through
+     * @return the guarded call
+     */
+    public <T> Mono<T> guard(String upstream, Mono<T> call) {
+        Guard guard = guards.get(upstream);
+        return Mono.deferContextual(context -> {
+                    Mono<T> guarded = call
+                            .timeout(guard.timeout())
+                            .transformDeferred(BulkheadOperator.of(guard.bulkhead()))
+                            .transformDeferred(CircuitBreakerOperator.of(guard.circuitBreaker()));
+                    Duration remaining = RequestDeadline.current(context).map(RequestDeadline::remaining).orElse(null);
+                    Duration maxWait = remaining != null && remaining.compareTo(guard.maxWait()) < 0 ? remaining : guard.maxWait();
+                    if (maxWait.isPositive()) {
+                        // the call is only subscribed to once it got a permission, so it can be resubscribed
+                        guarded = guarded.retryWhen(waitForPermission(System.nanoTime() + maxWait.toNanos()));
+                    }
+                    // outside the circuit breaker, which releases the permission of a cancelled call without recording it
+                    return remaining != null && remaining.compareTo(guard.timeout()) < 0 ? guarded.timeout(remaining) : guarded;
+                })
+                .onErrorMap(UpstreamGuard::isRejection, e -> unavailable(upstream, e));
+    }
+
+    /**
+     * Guards a blocking upstream call with the upstream's timeout only.
+     *
+     * @see #guard(String, RequestDeadline, Supplier)
+     */
+    public <T> T guard(String upstream, Supplier<T> call) {
+        return guard(upstream, null, call);
+    }
+
+    /**
+     * Guards a blocking upstream call. The call runs on the caller's thread, which is interrupted once the upstream's
+     * timeout or the request deadline, whichever comes first, has passed.
+     *
+     * @param upstream one of {@link #SNOW}, {@link #AM}, {@link #GLM}, {@link #RESOURCE_API}
+     * @param deadline the request deadline, or {@code null} for the upstream's timeout only
+     * @param call the call
+     * @return the call's result
+     * @throws UpstreamUnavailableException if the call was rejected or timed out
+     */
+    public <T> T guard(String upstream, RequestDeadline deadline, Supplier<T> call) {
+        Guard guard = guards.get(upstream);
+        if (deadline != null && deadline.isExpired()) {
+            throw unavailable(upstream, new TimeoutException("request deadline passed"));
+        }
+        long maxWaitNanos = guard.maxWait().toNanos();
+        if (deadline != null) {
+            maxWaitNanos = Math.min(maxWaitNanos, deadline.remaining().toNanos());
+        }
+        // the bulkhead first, so a waiting call does not hold one of the circuit breaker's half-open probes
+        if (!acquireBulkhead(guard.bulkhead(), maxWaitNanos)) {
+            throw unavailable(upstream, BulkheadFullException.createBulkheadFullException(guard.bulkhead()));
+        }
+        long timeoutNanos = guard.timeout().toNanos();
+        boolean deadlineFirst = deadline != null && deadline.remaining().toNanos() < timeoutNanos;
+        if (deadlineFirst) {
+            timeoutNanos = deadline.remaining().toNanos();
+            if (timeoutNanos <= 0) {
+                guard.bulkhead().onComplete();
+                throw unavailable(upstream, new TimeoutException("request deadline passed"));
+            }
+        }
+        CircuitBreaker circuitBreaker = guard.circuitBreaker();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            guard.bulkhead().onComplete();
+            throw unavailable(upstream, CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+        long start = System.nanoTime();
+        Watchdog callWatchdog = new Watchdog(Thread.currentThread());
+        callWatchdog.arm(watchdog, timeoutNanos);
+        try {
+            T result = call.get();
+            if (callWatchdog.disarm()) {
+                circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            }
+        } catch (RuntimeException | Error e) {
+            if (callWatchdog.disarm()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // the caller abandoned the call, which says nothing about the upstream's health
+                    circuitBreaker.releasePermission();
+                } else {
+                    circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                }
+                throw e;
+            }
+        } finally {
+            guard.bulkhead().onComplete();
+        }
+        // the watchdog interrupted the call; whatever it ended with, it timed out
+        TimeoutException timeout = new TimeoutException(upstream + " call timed out");
+        if (deadlineFirst) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, timeout);
+        }
+        throw unavailable(upstream, timeout);
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * Retries a call the bulkhead turned away, every {@link #PERMISSION_POLL_INTERVAL}, until {@code waitUntilNanos}.
+     */
+    private static Retry waitForPermission(long waitUntilNanos) {
+        return Retry.from(signals -> signals.concatMap(signal ->
+                signal.failure() instanceof BulkheadFullException
+                        && System.nanoTime() + PERMISSION_POLL_INTERVAL.toNanos() < waitUntilNanos
+                        ? Mono.delay(PERMISSION_POLL_INTERVAL)
+                        : Mono.error(signal.failure())));
+    }
+
+    /**
+     * Takes a bulkhead permission, polling for up to {@code maxWaitNanos} while the bulkhead is full.
+     *
+     * @return {@code false} if no permission became free in time, or the caller was interrupted while waiting
+     */
+    private static boolean acquireBulkhead(Bulkhead bulkhead, long maxWaitNanos) {
+        long waitUntil = System.nanoTime() + maxWaitNanos;
+        while (!bulkhead.tryAcquirePermission()) {
+            if (System.nanoTime() + PERMISSION_POLL_INTERVAL.toNanos() >= waitUntil) {
+                return false;
+            }
+            try {
+                Thread.sleep(PERMISSION_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isRejection(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException || e instanceof TimeoutException;
+    }
+
+    private static UpstreamUnavailableException unavailable(String upstream, Throwable e) {
+        String reason = e instanceof CallNotPermittedException ? "circuit open"
+                : e instanceof BulkheadFullException ? "too many concurrent calls"
+                : e instanceof TimeoutException ? "timed out" : "interrupted";
+        return new UpstreamUnavailableException(upstream, reason, e);
+    }
+
+    private static Guard guard(String upstream, UpstreamResilienceProperties.Upstream settings,
+                               CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(upstream, CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getOpenDuration())
+                // a full bulkhead says nothing about the upstream's health
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(upstream, BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                // waiting is done by polling, bounded by the request deadline, rather than by blocking in the bulkhead
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        return new Guard(circuitBreaker, bulkhead, settings.getTimeout(), settings.getMaxWait());
+    }
+
+    private record Guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead, Duration timeout, Duration maxWait) {
+    }
+
+    /**
+     * Interrupts a thread running a blocking call once the call's time is up, unless the call finished first.
+     * Exactly one of the two wins; the lock makes sure an interrupt is delivered before the caller learns it lost,
+     * so the caller can clear it instead of leaking it into its next blocking operation.
+     */
+    private static final class Watchdog implements Runnable {
+        private final Thread caller;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean finished;
+        private boolean fired;
+        private ScheduledFuture<?> timer;
+
+        Watchdog(Thread caller) {
+            this.caller = caller;
+        }
+
+        void arm(ScheduledThreadPoolExecutor scheduler, long timeoutNanos) {
+            timer = scheduler.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            lock.lock();
+            try {
+                if (!finished) {
+                    fired = true;
+                    caller.interrupt();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops the watchdog.
+         *
+         * @return {@code true} if the call finished in time, {@code false} if it was interrupted (the interrupt is cleared)
+         */
+        boolean disarm() {
+            timer.cancel(false);
+            lock.lock();
+            try {
+                finished = true;
+                if (fired) {
+                    Thread.interrupted();
+                }
+                return !fired;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
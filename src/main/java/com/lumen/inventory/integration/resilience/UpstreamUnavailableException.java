@@ -0,0 +1,18 @@
+package com.lumen.inventory.integration.resilience;
+
+/**
+ * An upstream call was not made or not completed because of {@link UpstreamGuard}: its circuit is open, its
+ * bulkhead is full, or it did not answer within its timeout.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    private final String upstream;
+
+    public UpstreamUnavailableException(String upstream, String reason, Throwable cause) {
+        super(upstream + " unavailable: " + reason, cause);
+        this.upstream = upstream;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+}
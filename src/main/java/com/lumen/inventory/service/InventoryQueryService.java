@@ -1,9 +1,17 @@
 package com.lumen.inventory.service;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.http.ResponseEntity;
 
 import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetEnrichmentResponse;
 import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Service interface for inventory query operations.
@@ -12,10 +20,38 @@ import com.lumen.inventory.dto.responses.GetInventoryResponse;
 public interface InventoryQueryService {
     
     /**
-     * Retrieves customer inventory based on query parameters.
+     * Retrieves customer inventory based on query parameters without blocking the calling thread.
+     * 
+     * @param queryParams Query parameters including filters and pagination
+     * @return Mono emitting the ResponseEntity containing inventory response
+     */
+    Mono<ResponseEntity<GetInventoryResponse>> getCustomerInventoryAsync(InventoryQueryParams queryParams);
+
+    /**
+     * Conditional variant of {@link #getCustomerInventoryAsync(InventoryQueryParams)}: when the response cache is
+     * enabled, responses carry an {@code ETag} and a matching {@code If-None-Match} yields {@code 304 Not Modified}.
      * 
      * @param queryParams Query parameters including filters and pagination
-     * @return ResponseEntity containing inventory response
+     * @param ifNoneMatch the request's {@code If-None-Match} header, if any
+     * @return Mono emitting the ResponseEntity containing inventory response
+     */
+    Mono<ResponseEntity<GetInventoryResponse>> getCustomerInventoryAsync(InventoryQueryParams queryParams, Optional<String> ifNoneMatch);
+
+    /**
+     * Streams the complete customer inventory, one item at a time, for large exports.
+     * 
+     * @param queryParams Query parameters including filters; pageSize sets the upstream page size used
+     * @return Flux emitting each inventory item as soon as it is enriched
+     */
+    Flux<ServiceInventory> streamCustomerInventory(InventoryQueryParams queryParams);
+
+    /**
+     * Resolves the enrichments a partial inventory response was returned without, by the keys of its
+     * {@code missingEnrichments}, without querying the inventory again.
+     * 
+     * @param bans BANs whose billing account is missing
+     * @param masterSiteIds master site ids whose location is missing
+     * @return Mono emitting the enrichments resolved, and the keys still missing
      */
-    ResponseEntity<GetInventoryResponse> getCustomerInventory(InventoryQueryParams queryParams);
+    Mono<GetEnrichmentResponse> getEnrichmentAsync(List<String> bans, List<String> masterSiteIds);
 }
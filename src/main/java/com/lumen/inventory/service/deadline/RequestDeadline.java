@@ -0,0 +1,102 @@
+package com.lumen.inventory.service.deadline;
+
+import com.lumen.inventory.config.RequestDeadlineProperties;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Point in time by which an inventory request must be answered.
+ * <p>
+ * The controller derives it from the {@value #HEADER} header (milliseconds) or the configured default, and puts
+ * it in the Reactor {@link Context} of the request's pipeline. Stages read it from there: {@link #limit(String, Mono)}
+ * bounds a stage by the budget left when the stage starts and cancels it once the deadline has passed, and stages
+ * that hand work to other threads pass {@link #current(ContextView)} along explicitly.
+ * </p>
+ * <p>
+ * Requests coalesced onto an execution already in flight share that execution, and with it the deadline of the
+ * request that started it.
+ * </p>
+ */
+public final class RequestDeadline {
+    /** Request header carrying the caller's budget, in milliseconds. */
+    public static final String HEADER = "X-Request-Timeout";
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline the given budget from now.
+     *
+     * @param budget time the request may take
+     * @return the deadline
+     */
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Resolves the deadline of a request: the caller's budget if given (capped at {@code maxTimeout}), otherwise
+     * {@code defaultTimeout}.
+     *
+     * @param requestedTimeoutMillis the {@value #HEADER} header value, if any
+     * @param properties configured default and maximum budget
+     * @return the deadline
+     */
+    public static RequestDeadline of(Optional<Long> requestedTimeoutMillis, RequestDeadlineProperties properties) {
+        Duration budget = requestedTimeoutMillis
+                .filter(millis -> millis > 0)
+                .map(Duration::ofMillis)
+                .map(requested -> requested.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : requested)
+                .orElse(properties.getDefaultTimeout());
+        return after(budget);
+    }
+
+    /**
+     * Budget left, zero once the deadline has passed.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Context holding this deadline, for {@code contextWrite}.
+     */
+    public Context asContext() {
+        return Context.of(RequestDeadline.class, this);
+    }
+
+    /**
+     * The deadline of the pipeline the given context belongs to, if it has one.
+     */
+    public static Optional<RequestDeadline> current(ContextView context) {
+        return context.getOrEmpty(RequestDeadline.class);
+    }
+
+    /**
+     * Bounds a stage by the request deadline: it fails with {@link RequestDeadlineExceededException} (and is
+     * cancelled) once the deadline passes, and is not started at all if it already has. Without deadline in the
+     * context the stage is returned unchanged.
+     *
+     * @param stage stage name, for the error message
+     * @param source the stage
+     * @return the bounded stage
+     */
+    public static <T> Mono<T> limit(String stage, Mono<T> source) {
+        return Mono.deferContextual(context -> current(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Mono.<T>error(new RequestDeadlineExceededException(stage))
+                        : source.timeout(deadline.remaining(), Mono.error(() -> new RequestDeadlineExceededException(stage))))
+                .orElse(source));
+    }
+}
@@ -0,0 +1,17 @@
+package com.lumen.inventory.service.deadline;
+
+/**
+ * A stage was cancelled, or not started, because the request deadline had passed.
+ */
+public class RequestDeadlineExceededException extends RuntimeException {
+    private final String stage;
+
+    public RequestDeadlineExceededException(String stage) {
+        super("Request deadline exceeded during " + stage);
+        this.stage = stage;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+}
@@ -0,0 +1,127 @@
+package com.lumen.inventory.service.enrichement;
+
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.deadline.RequestDeadlineExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Application-wide executor for Account Management (AM) fan-out.
+ * <p>
+ * Every call runs on its own virtual thread, so requests no longer create and destroy a thread pool each time.
+ * A single semaphore sized by {@code naas.inventory.max-concurrent-am-calls} caps the number of AM calls in flight
+ * across all requests; calls beyond the cap wait for a permit. Calls made for a request with a deadline wait at most
+ * until that deadline and are skipped once it has passed, and cancelling their future interrupts a call in flight.
+ * </p>
+ * <ul>
+ *   <li>{@code inventory.am.calls.queued} - calls waiting for a permit</li>
+ *   <li>{@code inventory.am.calls.active} - calls currently holding a permit</li>
+ *   <li>{@code inventory.am.calls.wait} - time spent waiting for a permit</li>
+ * </ul>
+ */
+@Component
+public class EnrichmentExecutor implements AutoCloseable {
+    private static final String AM_LOOKUP_STAGE = "AM lookup";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer waitTimer;
+
+    public EnrichmentExecutor(InventoryEnrichmentProperties properties, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(properties.getMaxConcurrentAmCalls(), true);
+        Gauge.builder("inventory.am.calls.queued", queued, AtomicInteger::get)
+                .description("AM calls waiting for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.am.calls.active", active, AtomicInteger::get)
+                .description("AM calls currently in flight")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("inventory.am.calls.wait")
+                .description("Time AM calls spent waiting for a concurrency permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the given AM call on a virtual thread once a global permit is available.
+     *
+     * @param call the AM call
+     * @return future completed with the call's result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> callWithPermit(null, call), executor);
+    }
+
+    /**
+     * Runs the given AM call of a request on a virtual thread once a global permit is available, unless the request
+     * deadline passes first.
+     *
+     * @param deadline the request deadline, or {@code null} to wait for a permit as long as it takes
+     * @param call the AM call
+     * @return future completed with the call's result, or failed with {@link RequestDeadlineExceededException} if the
+     *         call was not started before the deadline; cancelling it interrupts the call
+     */
+    public <T> CompletableFuture<T> submit(RequestDeadline deadline, Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(callWithPermit(deadline, call));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> T callWithPermit(RequestDeadline deadline, Supplier<T> call) {
+        if (deadline != null && deadline.isExpired()) {
+            throw new RequestDeadlineExceededException(AM_LOOKUP_STAGE);
+        }
+        queued.incrementAndGet();
+        long waitStart = System.nanoTime();
+        try {
+            if (deadline == null) {
+                permits.acquire();
+            } else if (!permits.tryAcquire(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RequestDeadlineExceededException(AM_LOOKUP_STAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            queued.decrementAndGet();
+            waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+        active.incrementAndGet();
+        try {
+            return call.get();
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
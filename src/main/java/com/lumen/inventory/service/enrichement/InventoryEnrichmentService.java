@@ -1,18 +1,25 @@
 package com.lumen.inventory.service.enrichement;
 
-import com.lumen.inventory.integration.account.AccountManagementAdapter;
+import com.lumen.inventory.integration.account.BanMappingCache;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.deadline.RequestDeadlineExceededException;
+import com.lumen.inventory.service.mapper.InventoryMapper;
+import com.lumen.inventory.service.mapper.MappedProduct;
 import com.lumen.inventory.service.mapper.ProductToServiceInventoryMapper;
-import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.service.mapper.SnowProductPage;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import com.lumen.inventory.dto.responses.MissingEnrichment;
 import com.lumen.inventory.dto.responses.Product;
-import com.lumen.inventory.dto.responses.ServiceInventory;
 
-import io.micrometer.observation.Observation;
-import io.micrometer.observation.ObservationRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,8 +29,8 @@ import org.slf4j.LoggerFactory;
  * <b>Flow for service type "Internet":</b>
  * <ol>
  *   <li><b>Request Initiation:</b> A request is made to enrich product data for products of service type "Internet".</li>
- *   <li><b>Parallel Enrichment:</b> The service processes enrichment in parallel using a configurable thread pool for efficiency.</li>
- *   <li><b>BAN Mapping:</b> For each Billing Account Number (BAN), the service calls {@link com.lumen.inventory.integration.account.AccountManagementAdapter} to retrieve invoice display and customer numbers from the Account Management Service.</li>
+ *   <li><b>Parallel Enrichment:</b> AM lookups fan out on the shared {@link EnrichmentExecutor}, which caps in-flight AM calls across all requests.</li>
+ *   <li><b>BAN Mapping:</b> The Billing Account Numbers (BANs) are read from {@link com.lumen.inventory.integration.account.BanMappingCache} in one pass; only the BANs it has not resolved recently go to the Account Management Service, as one batch of {@link com.lumen.inventory.integration.account.AccountManagementAdapter#getBanMappings}.</li>
  *   <li><b>Product Mapping:</b> The {@link com.lumen.inventory.service.mapper.ProductToServiceInventoryMapper} maps each {@link com.lumen.inventory.dto.responses.Product} to a {@link com.lumen.inventory.dto.responses.ServiceInventory}:
  *     <ul>
  *       <li>Sets service type to "Internet" (from configuration).</li>
@@ -31,7 +38,7 @@ import org.slf4j.LoggerFactory;
  *       <li>Attaches billing account and customer number information.</li>
  *     </ul>
  *   </li>
- *   <li><b>Telemetry & Logging:</b> The enrichment process is wrapped in a Micrometer {@link io.micrometer.observation.Observation} for telemetry, recording status and duration, and logging the outcome.</li>
+ *   <li><b>Telemetry & Logging:</b> Stage latencies and item counts go to {@link InventoryStageMetrics}.</li>
  *   <li><b>Response:</b> Returns a list of enriched {@link com.lumen.inventory.dto.responses.ServiceInventory} objects for downstream use.</li>
  * </ol>
  * <p>
@@ -45,91 +52,142 @@ import org.slf4j.LoggerFactory;
 @Service
 public class InventoryEnrichmentService {
     private static final Logger log = LoggerFactory.getLogger(InventoryEnrichmentService.class);
-    private final AccountManagementAdapter accountManagementAdapter;
+    private final BanMappingCache banMappingCache;
     private final ProductToServiceInventoryMapper productToServiceInventoryMapper;
-    private final InventoryEnrichmentProperties properties;
-    private final ObservationRegistry observationRegistry;
+    private final InventoryStageMetrics inventoryStageMetrics;
 
-    public InventoryEnrichmentService(AccountManagementAdapter accountManagementAdapter,
+    public InventoryEnrichmentService(BanMappingCache banMappingCache,
                                       ProductToServiceInventoryMapper productToServiceInventoryMapper,
-                                      InventoryEnrichmentProperties properties,
-                                      ObservationRegistry observationRegistry) {
-        this.accountManagementAdapter = accountManagementAdapter;
+                                      InventoryStageMetrics inventoryStageMetrics) {
+        this.banMappingCache = banMappingCache;
         this.productToServiceInventoryMapper = productToServiceInventoryMapper;
-        this.properties = properties;
-        this.observationRegistry = observationRegistry;
+        this.inventoryStageMetrics = inventoryStageMetrics;
     }
 
     /**
      * Enriches Billing Account Numbers (BANs) with Account Management (AM) data for service type "Internet".
      * <p>
-     * For each BAN in the input list, this method calls the Account Management Service in parallel
-     * to retrieve the associated invoice display number (billing account ID) and customer number.
-     * The results are mapped as {@code BAN -> "invoiceDisplayNumber|customerNumber"} for downstream enrichment.
+     * The BANs of the input list are first read from the BAN mapping cache in one pass. The BANs it misses go to Account
+     * Management as one batch, whose calls run in parallel (the AM client has no multi-BAN request yet), to retrieve the associated
+     * invoice display number (billing account ID) and customer number.
+     * The results are mapped as {@code BAN -> }{@link BillingAccountMapping} for downstream enrichment; BANs AM does not
+     * know map to {@link BillingAccountMapping#NOT_FOUND}.
      * <ul>
-     *   <li>Parallel execution is used for efficiency and scalability.</li>
-     *   <li>Handles errors gracefully, logging any failures and returning an empty mapping if needed.</li>
+     *   <li>Cached BANs do not touch the {@link EnrichmentExecutor}; AM calls run concurrently on it, bounded by the global AM call limit.</li>
+     *   <li>Degrades instead of failing: BANs whose lookup failed, e.g. while the AM circuit is open, are logged and left
+     *       out of the mapping, so their inventory is returned without billing account.</li>
+     *   <li>Honours the request deadline: lookups still waiting for a permit when it passes are skipped,
+     *       and the BANs resolved by then are returned while the lookups still running are cancelled.</li>
      *   <li>Used as a prerequisite for enriching inventory with billing and customer details for Internet services.</li>
      * </ul>
      *
      * @param banList List of Billing Account Numbers (BANs) to enrich with AM data
-     * @return ConcurrentHashMap mapping each BAN to a string in the format {@code "invoiceDisplayNumber|customerNumber"}
+     * @return Mono emitting the BAN to {@link BillingAccountMapping} map once every lookup completed
      */
-    public ConcurrentHashMap<String, String> fillBanHashMapByCallingAMService(List<String> banList) {
+    public Mono<ConcurrentHashMap<String, BillingAccountMapping>> fillBanHashMapByCallingAMServiceAsync(List<String> banList) {
+        inventoryStageMetrics.countItems(InventoryStageMetrics.AM_FANOUT, banList == null ? 0 : banList.size());
+        return inventoryStageMetrics.time(InventoryStageMetrics.AM_FANOUT, Mono.deferContextual(context ->
+                Mono.fromFuture(() -> lookupBanMappings(banList, RequestDeadline.current(context).orElse(null)))));
+    }
+
+    private CompletableFuture<ConcurrentHashMap<String, BillingAccountMapping>> lookupBanMappings(List<String> banList, RequestDeadline deadline) {
         if (banList == null || banList.isEmpty()) {
-            return new ConcurrentHashMap<>();
+            return CompletableFuture.completedFuture(new ConcurrentHashMap<>());
         }
-        int threadCount = Math.min(properties.getThreadAllocationCount(), banList.size());
-        try (ForkJoinPool customThreadPool = new ForkJoinPool(threadCount)) {
-            return customThreadPool.submit(() ->
-                banList.parallelStream().collect(Collectors.toMap(
-                    ban -> ban,
-                    accountManagementAdapter::getBanMapping,
-                    (existing, replacement) -> !replacement.isEmpty() ? replacement : existing,
-                    ConcurrentHashMap::new
-                ))
-            ).join();
+        Set<String> distinctBans = new LinkedHashSet<>(banList);
+        ConcurrentHashMap<String, BillingAccountMapping> banMap = new ConcurrentHashMap<>(banMappingCache.getCachedBanMappings(distinctBans));
+        List<String> missingBans = distinctBans.stream().filter(ban -> !banMap.containsKey(ban)).toList();
+        if (missingBans.isEmpty()) {
+            return CompletableFuture.completedFuture(banMap);
         }
+        AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+        Map<String, CompletableFuture<BillingAccountMapping>> lookups = banMappingCache.getBanMappings(missingBans, deadline);
+        List<CompletableFuture<Void>> pendingLookups = new ArrayList<>(lookups.size());
+        lookups.forEach((ban, lookup) -> pendingLookups.add(lookup.handle((mapping, e) -> {
+            Throwable failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (failure == null) {
+                banMap.put(ban, mapping);
+            } else if (!(failure instanceof RequestDeadlineExceededException) && !(failure instanceof CancellationException)) {
+                lastFailure.set(failure);
+            }
+            return null;
+        })));
+        CompletableFuture<Void> allLookups = CompletableFuture.allOf(pendingLookups.toArray(CompletableFuture[]::new));
+        if (deadline != null) {
+            allLookups = allLookups.completeOnTimeout(null, deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        CompletableFuture<ConcurrentHashMap<String, BillingAccountMapping>> mappings = allLookups.thenApply(ignored -> {
+            if (lastFailure.get() != null) {
+                log.warn("AM lookup failed for some BANs, returning them without billing account: {}", lastFailure.get().getMessage());
+            }
+            if (banMap.size() < distinctBans.size() && deadline != null && deadline.isExpired()) {
+                log.warn("Request deadline passed with {} of {} BANs resolved", banMap.size(), distinctBans.size());
+            }
+            // a copy, so lookups finishing after the deadline do not change the mapping being applied
+            return new ConcurrentHashMap<>(banMap);
+        });
+        // lookups still running once the mapping is settled (deadline passed, or the request went away) are abandoned
+        mappings.whenComplete((value, error) -> lookups.values().forEach(lookup -> lookup.cancel(true)));
+        return mappings;
     }
 
     /**
-     * Enriches a list of Product objects with billing account and customer number information from AM for service type "Internet".
-     * <p>
-     * For each Product:
-     * <ul>
-     *   <li>Looks up the related party of type "Customer" (BAN) in the provided map.</li>
-     *   <li>Extracts the invoice display number and customer number from the AM mapping.</li>
-     *   <li>Sets these values in the resulting ServiceInventory object for downstream use.</li>
-     *   <li>Filters product characteristics based on valid attributes.</li>
-     *   <li>Sets the service type to "Internet" as per configuration.</li>
-     * </ul>
-     * <b>Thread-safe and parallelized</b> for performance.
-     * <b>Telemetry and logging</b> are handled using Micrometer Observation for status and duration.
+     * Parses a SNOW product payload and maps each product as soon as it is read, collecting the distinct BANs
+     * along the way. Neither the full {@code List<Product>} nor a JSON tree is built.
+     * Parsing and mapping are interleaved; their times are separated and recorded as the {@code parse} and
+     * {@code mapping} stages.
+     *
+     * Products rejected by {@code productFilter} are dropped while parsing: they are not mapped and their BANs are
+     * not collected, so AM and GLM never see them.
      *
-     * @param productList List of Product objects to enrich
-     * @param banToInvoiceDisplayMap Map of BAN to {@code "invoiceDisplayNumber|customerNumber"} from AM
-     * @param azureToken Azure token for downstream enrichment (if needed)
-     * @return List of enriched ServiceInventory objects with AM data
-     * @throws InterruptedException if thread is interrupted during parallel processing
+     * @param snowJson SNOW response body (a JSON array of products)
+     * @param productFilter selects the products to keep
+     * @return the kept products and the BANs to resolve through AM
+     * @throws JsonProcessingException if the payload is not a valid product array
      */
-    public List<ServiceInventory> enrichProductList(List<Product> productList, ConcurrentHashMap<String, String> banToInvoiceDisplayMap, String azureToken) throws InterruptedException {
-        long startTime = System.currentTimeMillis();
-        Observation observation = Observation.start("product.enrichment", observationRegistry);
-        try {
-            List<ServiceInventory> result = productList.parallelStream()
-                .map(productIterator -> productToServiceInventoryMapper.map(productIterator, banToInvoiceDisplayMap, azureToken))
-                .collect(Collectors.toList());
-            observation.highCardinalityKeyValue("status", "success");
-            observation.highCardinalityKeyValue("duration_ms", String.valueOf(System.currentTimeMillis() - startTime));
-            log.info("Product enrichment succeeded in {}ms", System.currentTimeMillis() - startTime);
-            return result;
-        } catch (Exception ex) {
-            observation.highCardinalityKeyValue("status", "error");
-            observation.highCardinalityKeyValue("duration_ms", String.valueOf(System.currentTimeMillis() - startTime));
-            log.error("Product enrichment failed: {}", ex.getMessage());
-            throw ex;
-        } finally {
-            observation.stop();
-        }
+    public SnowProductPage mapSnowProducts(String snowJson, Predicate<Product> productFilter) throws JsonProcessingException {
+        List<MappedProduct> mappedProducts = new ArrayList<>();
+        Set<String> bans = new LinkedHashSet<>();
+        int[] totalProducts = {0};
+        long[] mappingNanos = {0};
+        long parseStart = System.nanoTime();
+        InventoryMapper.streamProducts(snowJson, product -> {
+            totalProducts[0]++;
+            if (!productFilter.test(product)) {
+                return;
+            }
+            long mappingStart = System.nanoTime();
+            MappedProduct mappedProduct = productToServiceInventoryMapper.map(product);
+            mappingNanos[0] += System.nanoTime() - mappingStart;
+            mappedProducts.add(mappedProduct);
+            if (mappedProduct.ban() != null) {
+                bans.add(mappedProduct.ban());
+            }
+        });
+        inventoryStageMetrics.record(InventoryStageMetrics.PARSE, System.nanoTime() - parseStart - mappingNanos[0]);
+        inventoryStageMetrics.record(InventoryStageMetrics.MAPPING, mappingNanos[0]);
+        inventoryStageMetrics.countItems(InventoryStageMetrics.PARSE, totalProducts[0]);
+        inventoryStageMetrics.countItems(InventoryStageMetrics.MAPPING, mappedProducts.size());
+        return new SnowProductPage(mappedProducts, new ArrayList<>(bans), totalProducts[0]);
+    }
+
+    /**
+     * Applies the AM billing account mapping to products mapped by {@link #mapSnowProducts(String, Predicate)}.
+     * Products whose BAN is absent from the mapping (its lookup failed or was cut short by the request deadline)
+     * are marked as missing their {@link MissingEnrichment#BILLING_ACCOUNT} through {@link PartialResults}.
+     *
+     * @param mappedProducts products mapped ahead of the AM lookup
+     * @param banToBillingAccountMap Map of BAN to its {@link BillingAccountMapping} from AM
+     */
+    public void applyBillingAccounts(List<MappedProduct> mappedProducts, Map<String, BillingAccountMapping> banToBillingAccountMap) {
+        inventoryStageMetrics.time(InventoryStageMetrics.BILLING_MERGE, () -> {
+            for (MappedProduct mappedProduct : mappedProducts) {
+                productToServiceInventoryMapper.applyBillingAccount(mappedProduct, banToBillingAccountMap);
+                if (mappedProduct.ban() != null && !banToBillingAccountMap.containsKey(mappedProduct.ban())) {
+                    PartialResults.markMissing(mappedProduct.inventory(), MissingEnrichment.BILLING_ACCOUNT, mappedProduct.ban());
+                }
+            }
+        });
+        inventoryStageMetrics.countItems(InventoryStageMetrics.BILLING_MERGE, mappedProducts.size());
     }
 }
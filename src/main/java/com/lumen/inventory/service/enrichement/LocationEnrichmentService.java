@@ -1,85 +1,184 @@
 package com.lumen.inventory.service.enrichement;
 
 import com.lumen.inventory.dto.responses.Address;
-import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.MissingEnrichment;
 import com.lumen.inventory.dto.responses.ServiceInventory;
-import com.lumen.glm.service.GLMRestClient;
+import com.lumen.inventory.integration.location.SiteLocationCache;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class LocationEnrichmentService {
     private static final Logger log = LoggerFactory.getLogger(LocationEnrichmentService.class);
+    /** Only every Nth inventory item is logged at debug level while matching GLM sites. */
+    private static final int ITEM_LOG_SAMPLE_RATE = 100;
 
+    private final SiteLocationCache siteLocationCache;
+    private final InventoryStageMetrics inventoryStageMetrics;
 
-    private final GLMRestClient glmRestClient;
-
-    public LocationEnrichmentService(GLMRestClient glmRestClient) {
-        this.glmRestClient = glmRestClient;
+    public LocationEnrichmentService(SiteLocationCache siteLocationCache, InventoryStageMetrics inventoryStageMetrics) {
+        this.siteLocationCache = siteLocationCache;
+        this.inventoryStageMetrics = inventoryStageMetrics;
     }
 
-    public void enrichLocationInformation(GetInventoryResponse getInventoryResponse) {
+    /**
+     * Fetches the GLM site locations for the master site ids of the given inventory, without applying them.
+     * Used to run the GLM lookup concurrently with other enrichment; GLM failures yield an empty list, and so does a
+     * lookup still running when the request deadline passes (it is cancelled). In both cases the items with a master
+     * site id are marked as missing their {@link MissingEnrichment#LOCATION} through {@link PartialResults}.
+     *
+     * @param serviceInventoryList inventory whose locations need GLM data
+     * @return Mono emitting the GLM site locations (possibly empty)
+     */
+    public Mono<List<com.lumen.glm.dto.ServiceLocation>> fetchSiteLocations(List<ServiceInventory> serviceInventoryList) {
         log.info("In InventoryService to get LocationInformation for InventoryData");
         log.info("GLM started");
-        log.error("GetInventory  getLocationInformation started");
-        try {
-            List<ServiceInventory> serviceInventoryList = getInventoryResponse.getInventoryList();//Retrieves the list of ServiceInventory objects from the response.
-            if (serviceInventoryList != null && !serviceInventoryList.isEmpty()) {
-                List<String> glmList = serviceInventoryList.stream()
-                        .filter(y -> y.getLocation() != null)
-                        .map(x -> x.getLocation().getMasterSiteid())
-                        .distinct()
-                        .collect(Collectors.toList());//Collects a distinct list of all masterSiteid values from inventory items that have a location.
-                log.info("GLM id count {}", glmList.size());
-                log.info("glm List {}", glmList);
-                if (!glmList.isEmpty()) {
-                    log.info("GetInventory  getLocationInformation thread started");
-                    List<com.lumen.glm.dto.ServiceLocation> glmResponses = glmRestClient.getLocationInformationForList(glmList).block();
-                    //Calls the GLM REST client to fetch location information for all IDs (blocking call).
-                    List<com.lumen.glm.dto.ServiceLocation> siteLocationList = new ArrayList<>();
-                    if (glmResponses != null) {
-                        siteLocationList.addAll(glmResponses);
-                    }//Initializes a list for site locations and adds all responses if not null.
-                    log.info("GLM Processing Completed");
-                    log.info("Size of GLM Response returned {}", siteLocationList.size());
-                    log.info("Size of service Inventory {}", serviceInventoryList.size());
-                    for (ServiceInventory serviceInventoryIterator : serviceInventoryList) {
-                        if (serviceInventoryIterator.getLocation() != null && StringUtils.hasLength(serviceInventoryIterator.getLocation().getMasterSiteid())) {
-                            //Iterates over each inventory item, checking if it has a location and a non-empty masterSiteid.
-                            List<com.lumen.glm.dto.ServiceLocation> filteredSiteLocationList = siteLocationList.stream()
-                                    .filter(x -> x.getMasterSiteId().equalsIgnoreCase(serviceInventoryIterator.getLocation().getMasterSiteid()))
-                                    .collect(Collectors.toList());
-                                    //Filters the site locations to those matching the current inventory item's masterSiteid.
-                            log.info("Checking for MasterSiteId if present {} is present {}", serviceInventoryIterator.getLocation().getMasterSiteid(), filteredSiteLocationList.isEmpty());
-                            if (!filteredSiteLocationList.isEmpty()) {
-                                com.lumen.glm.dto.ServiceLocation siteLocation = filteredSiteLocationList.get(0);
-                                Address address = new Address();
-                                address.setMasterSiteid(siteLocation.getMasterSiteId());
-                                //Logs whether a matching site location was found. If found, gets the first match and creates a new Address object, setting its masterSiteid.
-                                if (siteLocation.getAddressLine1() != null) {
-                                    address.setStreetAddress(siteLocation.getAddressLine1().getAddressLine1and2Combined());
-                                    address.setCity(siteLocation.getAddressLine1().getCity());
-                                    address.setStateOrProvince(siteLocation.getAddressLine1().getStateId());
-                                    address.setCountry(siteLocation.getAddressLine1().getAddressBlock3());
-                                    address.setPostcode(siteLocation.getAddressLine1().getPostalCode());
-                                }
-                                serviceInventoryIterator.setLocation(address);
-                                //If the site location has address details, sets them on the new Address object, then updates the inventory item's location with this enriched address.
-                            }
+        List<String> glmList = serviceInventoryList.stream()
+                .filter(y -> y.getLocation() != null)
+                .map(x -> x.getLocation().getMasterSiteid())
+                .distinct()
+                .collect(Collectors.toList());//Collects a distinct list of all masterSiteid values from inventory items that have a location.
+        log.info("GLM id count {}", glmList.size());
+        if (glmList.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        log.info("GetInventory  getLocationInformation thread started");
+        inventoryStageMetrics.countItems(InventoryStageMetrics.GLM_FETCH, glmList.size());
+        return inventoryStageMetrics.time(InventoryStageMetrics.GLM_FETCH,
+                        RequestDeadline.limit(InventoryStageMetrics.GLM_FETCH, siteLocationCache.getLocations(glmList)))
+                //Reads the site locations from the location cache; only IDs not cached yet go to GLM, in one batched call.
+                .defaultIfEmpty(List.of())
+                .doOnSuccess(ignored -> log.info("GLM Ended"))
+                .onErrorResume(e -> {
+                    log.error("Exception occurred while fetching location information " + e.getMessage());
+                    for (ServiceInventory serviceInventory : serviceInventoryList) {
+                        if (serviceInventory.getLocation() != null && StringUtils.hasLength(serviceInventory.getLocation().getMasterSiteid())) {
+                            PartialResults.markMissing(serviceInventory, MissingEnrichment.LOCATION, serviceInventory.getLocation().getMasterSiteid());
                         }
                     }
+                    return Mono.just(List.of());
+                });
+    }
+
+    /**
+     * Resolves site addresses by master site id, for re-enriching items a partial response returned without location.
+     * Goes through the same GLM location cache and request deadline as {@link #fetchSiteLocations(List)}.
+     *
+     * @param masterSiteIds master site ids, in any case
+     * @return Mono emitting the address of every id GLM returned, keyed by the id as requested; empty if GLM failed
+     */
+    public Mono<Map<String, Address>> resolveLocations(List<String> masterSiteIds) {
+        if (masterSiteIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        inventoryStageMetrics.countItems(InventoryStageMetrics.GLM_FETCH, masterSiteIds.size());
+        return inventoryStageMetrics.time(InventoryStageMetrics.GLM_FETCH,
+                        RequestDeadline.limit(InventoryStageMetrics.GLM_FETCH, siteLocationCache.getLocations(masterSiteIds)))
+                .defaultIfEmpty(List.of())
+                .map(glmResponses -> {
+                    Map<String, com.lumen.glm.dto.ServiceLocation> siteLocationsByMasterSiteId = indexByMasterSiteId(glmResponses);
+                    Map<String, Address> addresses = new LinkedHashMap<>();
+                    for (String masterSiteId : masterSiteIds) {
+                        com.lumen.glm.dto.ServiceLocation siteLocation = siteLocationsByMasterSiteId.get(normalizeMasterSiteId(masterSiteId));
+                        if (siteLocation != null) {
+                            addresses.putIfAbsent(masterSiteId, toAddress(siteLocation));
+                        }
+                    }
+                    return addresses;
+                })
+                .onErrorResume(e -> {
+                    log.error("Exception occurred while resolving location information " + e.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    /**
+     * Replaces each inventory location with the matching GLM site address.
+     * <p>
+     * The GLM sites are indexed once by case-normalized {@code masterSiteId}, so matching stays linear in
+     * the number of inventory items no matter how many sites the customer has.
+     * </p>
+     *
+     * @param serviceInventoryList inventory to update in place
+     * @param glmResponses GLM site locations
+     */
+    public void applyLocations(List<ServiceInventory> serviceInventoryList, List<com.lumen.glm.dto.ServiceLocation> glmResponses) {
+        inventoryStageMetrics.time(InventoryStageMetrics.LOCATION_MERGE, () -> mergeLocations(serviceInventoryList, glmResponses));
+        inventoryStageMetrics.countItems(InventoryStageMetrics.LOCATION_MERGE, serviceInventoryList.size());
+    }
+
+    private void mergeLocations(List<ServiceInventory> serviceInventoryList, List<com.lumen.glm.dto.ServiceLocation> glmResponses) {
+        Map<String, com.lumen.glm.dto.ServiceLocation> siteLocationsByMasterSiteId = indexByMasterSiteId(glmResponses);
+        log.info("GLM Processing Completed");
+        log.info("Size of GLM Response returned {}", siteLocationsByMasterSiteId.size());
+        log.info("Size of service Inventory {}", serviceInventoryList.size());
+        int itemIndex = 0;
+        int matchedCount = 0;
+        for (ServiceInventory serviceInventoryIterator : serviceInventoryList) {
+            if (serviceInventoryIterator.getLocation() != null && StringUtils.hasLength(serviceInventoryIterator.getLocation().getMasterSiteid())) {
+                //Iterates over each inventory item, checking if it has a location and a non-empty masterSiteid.
+                String masterSiteId = serviceInventoryIterator.getLocation().getMasterSiteid();
+                com.lumen.glm.dto.ServiceLocation siteLocation = siteLocationsByMasterSiteId.get(normalizeMasterSiteId(masterSiteId));
+                //Looks up the site location matching the current inventory item's masterSiteid.
+                if (log.isDebugEnabled() && itemIndex % ITEM_LOG_SAMPLE_RATE == 0) {
+                    log.debug("Checking for MasterSiteId {} is present {}", masterSiteId, siteLocation != null);
+                }
+                itemIndex++;
+                if (siteLocation != null) {
+                    matchedCount++;
+                    serviceInventoryIterator.setLocation(toAddress(siteLocation));
+                    //If found, updates the inventory item's location with the enriched site address.
                 }
             }
-            log.info("GLM Ended");
-            log.error("GetInventory  getLocationInformation ended");
-        } catch (Exception e) {
-            log.error("Exception occurred while setting location object " + e.getMessage());
         }
+        log.info("GLM locations matched for {} of {} inventory items", matchedCount, serviceInventoryList.size());
+    }
+
+    /**
+     * Builds the inventory address of a GLM site: its master site id, plus the address details when GLM has them.
+     */
+    private static Address toAddress(com.lumen.glm.dto.ServiceLocation siteLocation) {
+        Address address = new Address();
+        address.setMasterSiteid(siteLocation.getMasterSiteId());
+        if (siteLocation.getAddressLine1() != null) {
+            address.setStreetAddress(siteLocation.getAddressLine1().getAddressLine1and2Combined());
+            address.setCity(siteLocation.getAddressLine1().getCity());
+            address.setStateOrProvince(siteLocation.getAddressLine1().getStateId());
+            address.setCountry(siteLocation.getAddressLine1().getAddressBlock3());
+            address.setPostcode(siteLocation.getAddressLine1().getPostalCode());
+        }
+        return address;
+    }
+
+    /**
+     * Builds the case-normalized {@code masterSiteId} index; the first site returned for an id wins, as before.
+     */
+    private static Map<String, com.lumen.glm.dto.ServiceLocation> indexByMasterSiteId(List<com.lumen.glm.dto.ServiceLocation> glmResponses) {
+        if (glmResponses == null || glmResponses.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, com.lumen.glm.dto.ServiceLocation> index = new HashMap<>(glmResponses.size() * 2);
+        for (com.lumen.glm.dto.ServiceLocation siteLocation : glmResponses) {
+            if (siteLocation != null && siteLocation.getMasterSiteId() != null) {
+                index.putIfAbsent(normalizeMasterSiteId(siteLocation.getMasterSiteId()), siteLocation);
+            }
+        }
+        return index;
+    }
+
+    private static String normalizeMasterSiteId(String masterSiteId) {
+        return masterSiteId.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,84 @@
+package com.lumen.inventory.service.enrichement;
+
+import com.lumen.inventory.dto.responses.EnrichmentStatus;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.MissingEnrichment;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bookkeeping of enrichments that degraded instead of failing the request.
+ * <p>
+ * When AM cannot resolve a BAN (failure, open circuit, request deadline) or the GLM lookup fails, the affected
+ * inventory items are still returned; {@link #markMissing} records on each of them which enrichment is missing
+ * and the key it can be resolved by later. {@link #summarize} then turns the response into a partial result,
+ * so clients re-enrich only those items through {@code /inventory/enrichment} instead of repeating the whole
+ * query. Enrichments the upstream answered but had no data for (a BAN AM does not know, a site GLM does not
+ * return) are not missing: asking again would not change them.
+ * </p>
+ */
+public final class PartialResults {
+
+    private PartialResults() {
+        // Utility class
+    }
+
+    /**
+     * Records on the item that the given enrichment is missing.
+     *
+     * @param inventory the item returned without the enrichment
+     * @param enrichment {@link MissingEnrichment#BILLING_ACCOUNT} or {@link MissingEnrichment#LOCATION}
+     * @param key BAN or master site id to resolve the enrichment by
+     */
+    static void markMissing(ServiceInventory inventory, String enrichment, String key) {
+        if (inventory.getMissingEnrichments() == null) {
+            inventory.setMissingEnrichments(new ArrayList<>(2));
+        }
+        inventory.getMissingEnrichments().add(MissingEnrichment.of(enrichment, key));
+    }
+
+    /**
+     * Marks the response as partial when any of its items misses an enrichment, with one
+     * {@link EnrichmentStatus} per enrichment stage concerned; a complete response is left unchanged.
+     *
+     * @param response the response, updated in place
+     * @return the response
+     */
+    public static GetInventoryResponse summarize(GetInventoryResponse response) {
+        if (response.getInventoryList() == null) {
+            return response;
+        }
+        Map<String, Integer> missingItems = new LinkedHashMap<>();
+        for (ServiceInventory inventory : response.getInventoryList()) {
+            if (inventory.getMissingEnrichments() != null) {
+                for (MissingEnrichment missingEnrichment : inventory.getMissingEnrichments()) {
+                    missingItems.merge(missingEnrichment.getEnrichment(), 1, Integer::sum);
+                }
+            }
+        }
+        if (missingItems.isEmpty()) {
+            return response;
+        }
+        List<EnrichmentStatus> enrichmentStatus = new ArrayList<>(missingItems.size());
+        missingItems.forEach((enrichment, items) -> {
+            EnrichmentStatus status = new EnrichmentStatus();
+            status.setEnrichment(enrichment);
+            status.setMissingItems(items);
+            status.setMessage(message(enrichment, items));
+            enrichmentStatus.add(status);
+        });
+        response.setPartial(true);
+        response.setEnrichmentStatus(enrichmentStatus);
+        return response;
+    }
+
+    private static String message(String enrichment, int items) {
+        String upstream = MissingEnrichment.BILLING_ACCOUNT.equals(enrichment) ? "Account Management" : "GLM";
+        return upstream + " could not be reached in time for " + items + " items; "
+                + "resolve the keys of their missingEnrichments through /inventory/enrichment";
+    }
+}
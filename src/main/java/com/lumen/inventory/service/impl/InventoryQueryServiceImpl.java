@@ -1,16 +1,40 @@
 
 package com.lumen.inventory.service.impl;
 
+import com.lumen.error.enums.ErrorCode;
+import com.lumen.error.exception.ProcessingException;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+import com.lumen.inventory.service.enrichement.InventoryEnrichmentService;
+import com.lumen.inventory.service.enrichement.LocationEnrichmentService;
+import com.lumen.inventory.service.enrichement.PartialResults;
 import com.lumen.inventory.service.internet.InternetInventoryService;
 import com.lumen.inventory.service.port.PortInventoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.Address;
+import com.lumen.inventory.dto.responses.BillingAccountResponse;
+import com.lumen.inventory.dto.responses.EnrichmentResult;
+import com.lumen.inventory.dto.responses.GetEnrichmentResponse;
 import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.InventoryError;
+import com.lumen.inventory.dto.responses.MissingEnrichment;
+import com.lumen.inventory.dto.responses.PaginationResponse;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.exception.NoInventoryFoundException;
 import com.lumen.inventory.service.InventoryQueryService;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementation of InventoryQueryService following SOLID principles and Account Service pattern.
@@ -40,65 +64,301 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class InventoryQueryServiceImpl implements InventoryQueryService {
 
-
-
     @Autowired
     private InternetInventoryService internetInventoryService;
 
     @Autowired
     private PortInventoryService portInventoryService;
 
+    @Autowired
+    private InventoryRequestCoalescer inventoryRequestCoalescer;
+
+    @Autowired
+    private InventoryResponseCache inventoryResponseCache;
+
+    @Autowired
+    private InventoryEnrichmentService inventoryEnrichmentService;
+
+    @Autowired
+    private LocationEnrichmentService locationEnrichmentService;
+
     /**
-     * Retrieves customer inventory based on query parameters.
+     * Retrieves customer inventory based on query parameters without blocking the calling thread.
      * Delegates Internet-specific logic to {@link com.lumen.inventory.service.internet.InternetInventoryService}.
-     * Only customerNumbers, serviceType, and serviceId are supported as query parameters.
+     * Both the Internet and the Port flow run as reactive pipelines; when several service types are requested
+     * (a list or All, the default) they run concurrently and their results are merged into one response.
+     * Concurrent identical queries (after normalization) share one upstream execution
+     * through {@link InventoryRequestCoalescer}.
      *
-     * @param queryParams Query parameters (customerNumbers, serviceType, serviceId)
-     * @return ResponseEntity containing inventory response
+     * @param queryParams Query parameters (customerNumbers, serviceType, serviceId, pageNumber, pageSize)
+     * @return Mono emitting the ResponseEntity containing inventory response
      */
     @Override
-    public ResponseEntity<GetInventoryResponse> getCustomerInventory(InventoryQueryParams queryParams) {
-        log.info("Processing inventory request with params: {}", queryParams.getQuerySummary());
+    public Mono<ResponseEntity<GetInventoryResponse>> getCustomerInventoryAsync(InventoryQueryParams queryParams) {
+        return getCustomerInventoryAsync(queryParams, Optional.empty());
+    }
 
+    /**
+     * Retrieves customer inventory, honouring {@code If-None-Match} when the response cache is enabled.
+     * Cached responses are served by {@link InventoryResponseCache} without any upstream call; misses go through
+     * {@link InventoryRequestCoalescer} so concurrent identical queries still share one execution.
+     *
+     * @param queryParams Query parameters (customerNumbers, serviceType, serviceId, pageNumber, pageSize)
+     * @param ifNoneMatch the request's {@code If-None-Match} header, if any
+     * @return Mono emitting the ResponseEntity containing inventory response, or 304 Not Modified
+     */
+    @Override
+    public Mono<ResponseEntity<GetInventoryResponse>> getCustomerInventoryAsync(InventoryQueryParams queryParams, Optional<String> ifNoneMatch) {
+        log.info("Processing inventory request with params: {}", queryParams.getQuerySummary());
+        InventoryQueryParams normalizedParams = queryParams.normalized();
+        return inventoryResponseCache.getOrLoad(normalizedParams, ifNoneMatch,
+            () -> inventoryRequestCoalescer.execute(normalizedParams, () -> executeInventoryQuery(normalizedParams)));
+    }
 
-        // Using constants from InventoryQueryParams
-        return queryParams.serviceType()
-            .map(type -> {
-                switch (type) {
-                    case InventoryQueryParams.SERVICE_TYPE_INTERNET:
-                        // Internet flow: SNOW, AM, GLM, filtering
-                        return getInventoryInternetList(queryParams);
-                    case InventoryQueryParams.SERVICE_TYPE_PORT:
-                        // Port logic can be added here in the future
-                        return getInventoryPortList(queryParams);
+    /**
+     * Runs the query and marks the response as partial when items were returned without some enrichment
+     * (see {@link PartialResults}).
+     */
+    private Mono<ResponseEntity<GetInventoryResponse>> executeInventoryQuery(InventoryQueryParams queryParams) {
+        return executeServiceTypeQueries(queryParams)
+            .doOnNext(response -> {
+                if (response.getBody() != null) {
+                    PartialResults.summarize(response.getBody());
                 }
+            });
+    }
+
+    private Mono<ResponseEntity<GetInventoryResponse>> executeServiceTypeQueries(InventoryQueryParams queryParams) {
+        List<String> serviceTypes = queryParams.serviceTypes();
+        if (serviceTypes.size() == 1) {
+            return executeServiceTypeQuery(queryParams.withServiceType(serviceTypes.get(0)));
+        }
+        // Several service types: every flow runs concurrently and a failing flow only contributes an error entry;
+        // "no inventory" is not a failure, so it is not logged as one
+        return Flux.fromIterable(serviceTypes)
+            .flatMapSequential(type -> executeServiceTypeQuery(queryParams.withServiceType(type))
+                .map(response -> new ServiceTypeOutcome(type, response, null))
+                .onErrorResume(e -> {
+                    if (!(e instanceof NoInventoryFoundException)) {
+                        log.error("{} inventory failed for {}: {}", type, queryParams.getQuerySummary(), e.getMessage());
+                    }
+                    return Mono.just(new ServiceTypeOutcome(type, null, e));
+                }))
+            .collectList()
+            .flatMap(outcomes -> mergeServiceTypeOutcomes(queryParams, outcomes));
+    }
+
+    private Mono<ResponseEntity<GetInventoryResponse>> executeServiceTypeQuery(InventoryQueryParams queryParams) {
+        String type = queryParams.serviceTypes().get(0);
+        switch (type) {
+            case InventoryQueryParams.SERVICE_TYPE_INTERNET:
+                // Internet flow: SNOW, AM, GLM, filtering
+                return internetInventoryService.getInventoryInternetListAsync(queryParams);
+            case InventoryQueryParams.SERVICE_TYPE_PORT:
+                // Port flow: Resource API per customer, AM, GLM
+                return portInventoryService.getInventoryPortListAsync(queryParams);
+            default:
                 // This should never be reached if validation is correct
                 throw new IllegalStateException("Unexpected serviceType: " + type);
-            }).get();
+        }
+    }
+
+    /**
+     * Merges the per service-type results into one response.
+     * <ul>
+     *   <li>The inventory of every successful type is returned, in {@link InventoryQueryParams#SERVICE_TYPES} order.
+     *       A type without any inventory ({@link NoInventoryFoundException}) is an empty success.</li>
+     *   <li>Every type is paged on its own with the requested page number and size, so the merged page holds up to
+     *       one page per type. {@code pageNumber} and {@code pageSize} are the requested values, {@code resultCount}
+     *       counts the merged items and {@code pagination} has one entry per successful type, named by its
+     *       {@code serviceType}, with that type's {@code totalRecords}.</li>
+     *   <li>Each failed type is listed in {@code errors}.</li>
+     * </ul>
+     * When every type failed the first failure is returned as is, and when no type has inventory at all the
+     * query is answered like a single-type query without inventory.
+     */
+    private Mono<ResponseEntity<GetInventoryResponse>> mergeServiceTypeOutcomes(InventoryQueryParams queryParams, List<ServiceTypeOutcome> outcomes) {
+        List<ServiceInventory> inventoryList = new ArrayList<>();
+        List<PaginationResponse> pagination = new ArrayList<>();
+        List<InventoryError> errors = new ArrayList<>();
+        for (ServiceTypeOutcome outcome : outcomes) {
+            if (!outcome.succeeded() && !outcome.noInventory()) {
+                errors.add(outcome.toError());
+                continue;
+            }
+            pagination.add(outcome.pagination(queryParams));
+            if (outcome.succeeded() && outcome.response().getBody().getInventoryList() != null) {
+                inventoryList.addAll(outcome.response().getBody().getInventoryList());
+            }
+        }
+        if (pagination.isEmpty() || outcomes.stream().allMatch(ServiceTypeOutcome::noInventory)) {
+            ServiceTypeOutcome first = outcomes.get(0);
+            return first.error() != null ? Mono.error(first.error()) : Mono.just(first.response());
+        }
+        GetInventoryResponse merged = new GetInventoryResponse();
+        merged.setInventoryList(inventoryList);
+        merged.setPageNumber(queryParams.resolvedPageNumber());
+        merged.setPageSize(queryParams.resolvedPageSize());
+        merged.setResultCount(inventoryList.size());
+        merged.setPagination(pagination);
+        merged.setErrors(errors.isEmpty() ? null : errors);
+        return Mono.just(new ResponseEntity<>(merged, HttpStatus.OK));
     }
 
     /**
-     * Handles Internet service type inventory retrieval.
-     * Delegates to {@link com.lumen.inventory.service.internet.InternetInventoryService#getInventoryInternetList(InventoryQueryParams)}.
+     * Streams the complete customer inventory for exports.
+     * The Internet flow walks all SNOW pages in sequence; the Port flow enriches the ports of all customers
+     * one page-sized slice at a time.
+     * When several service types are requested they run concurrently and their items are emitted type by type;
+     * a failing type does not hide the items of the others, its error terminates the stream once they were sent.
      *
-     * @param queryParams Query parameters
-     * @return ResponseEntity with inventory data
+     * @param queryParams Query parameters (customerNumbers, serviceType, serviceId, pageSize)
+     * @return Flux emitting each inventory item as soon as it is enriched
      */
-    private ResponseEntity<GetInventoryResponse> getInventoryInternetList(InventoryQueryParams queryParams) {
-        return internetInventoryService.getInventoryInternetList(queryParams);
+    @Override
+    public Flux<ServiceInventory> streamCustomerInventory(InventoryQueryParams queryParams) {
+        log.info("Processing inventory export with params: {}", queryParams.getQuerySummary());
+
+        List<Flux<ServiceInventory>> streams = queryParams.serviceTypes().stream()
+            .map(type -> streamServiceTypeInventory(queryParams.withServiceType(type)))
+            .toList();
+        return Flux.mergeSequentialDelayError(streams, streams.size(), 1);
     }
 
-  
+    private Flux<ServiceInventory> streamServiceTypeInventory(InventoryQueryParams queryParams) {
+        String type = queryParams.serviceTypes().get(0);
+        switch (type) {
+            case InventoryQueryParams.SERVICE_TYPE_INTERNET:
+                return internetInventoryService.streamInventoryInternetList(queryParams);
+            case InventoryQueryParams.SERVICE_TYPE_PORT:
+                return portInventoryService.streamInventoryPortList(queryParams);
+            default:
+                // This should never be reached if validation is correct
+                throw new IllegalStateException("Unexpected serviceType: " + type);
+        }
+    }
 
     /**
-     * Handles Port service type inventory retrieval.
-     * Delegates to {@link com.lumen.inventory.service.port.PortInventoryService#getInventoryPortList(InventoryQueryParams)}.
+     * Resolves the enrichments of a partial response by BAN and master site id. AM and GLM are looked up
+     * concurrently, through the same caches, guards and request deadline as the inventory query; ServiceNow and
+     * the Resource API are not called. At most {@link InventoryQueryParams#MAX_PAGE_SIZE} keys of each kind are
+     * accepted, the most a page of inventory can be missing.
      *
-     * @param queryParams Query parameters
-     * @return ResponseEntity with inventory data (currently NOT_IMPLEMENTED)
+     * @param bans BANs whose billing account is missing
+     * @param masterSiteIds master site ids whose location is missing
+     * @return Mono emitting the enrichments resolved, and the keys still missing; or failing with a
+     *         {@link ProcessingException} ({@link ErrorCode#BAD_REQUEST}) if no key, or too many keys, are given
      */
-    private ResponseEntity<GetInventoryResponse> getInventoryPortList(InventoryQueryParams queryParams) {
-        return portInventoryService.getInventoryPortList(queryParams);
+    @Override
+    public Mono<GetEnrichmentResponse> getEnrichmentAsync(List<String> bans, List<String> masterSiteIds) {
+        List<String> distinctBans = distinctKeys(bans);
+        List<String> distinctMasterSiteIds = distinctKeys(masterSiteIds);
+        if (distinctBans.isEmpty() && distinctMasterSiteIds.isEmpty()) {
+            return Mono.error(new ProcessingException(ErrorCode.BAD_REQUEST, "At least one BAN or master site id is required"));
+        }
+        if (distinctBans.size() > InventoryQueryParams.MAX_PAGE_SIZE || distinctMasterSiteIds.size() > InventoryQueryParams.MAX_PAGE_SIZE) {
+            return Mono.error(new ProcessingException(ErrorCode.BAD_REQUEST,
+                    "At most " + InventoryQueryParams.MAX_PAGE_SIZE + " BANs and " + InventoryQueryParams.MAX_PAGE_SIZE + " master site ids are allowed"));
+        }
+        log.info("Resolving enrichment for {} BANs and {} master site ids", distinctBans.size(), distinctMasterSiteIds.size());
+        return Mono.zip(
+                inventoryEnrichmentService.fillBanHashMapByCallingAMServiceAsync(distinctBans),
+                locationEnrichmentService.resolveLocations(distinctMasterSiteIds))
+            .map(amAndGlm -> {
+                List<EnrichmentResult> enrichments = new ArrayList<>();
+                List<MissingEnrichment> missingEnrichments = new ArrayList<>();
+                for (String ban : distinctBans) {
+                    BillingAccountMapping mapping = amAndGlm.getT1().get(ban);
+                    if (mapping == null) {
+                        missingEnrichments.add(MissingEnrichment.of(MissingEnrichment.BILLING_ACCOUNT, ban));
+                        continue;
+                    }
+                    EnrichmentResult result = new EnrichmentResult();
+                    result.setEnrichment(MissingEnrichment.BILLING_ACCOUNT);
+                    result.setKey(ban);
+                    BillingAccountResponse billingAccount = new BillingAccountResponse();
+                    billingAccount.setId(mapping.invoiceDisplayNumber());
+                    result.setBillingAccount(billingAccount);
+                    result.setCustomerNumber(mapping.customerNumber());
+                    enrichments.add(result);
+                }
+                for (String masterSiteId : distinctMasterSiteIds) {
+                    Address location = amAndGlm.getT2().get(masterSiteId);
+                    if (location == null) {
+                        missingEnrichments.add(MissingEnrichment.of(MissingEnrichment.LOCATION, masterSiteId));
+                        continue;
+                    }
+                    EnrichmentResult result = new EnrichmentResult();
+                    result.setEnrichment(MissingEnrichment.LOCATION);
+                    result.setKey(masterSiteId);
+                    result.setLocation(location);
+                    enrichments.add(result);
+                }
+                GetEnrichmentResponse response = new GetEnrichmentResponse();
+                response.setEnrichments(enrichments);
+                if (!missingEnrichments.isEmpty()) {
+                    response.setMissingEnrichments(missingEnrichments);
+                    response.setPartial(true);
+                }
+                return response;
+            });
+    }
+
+    private static List<String> distinctKeys(List<String> keys) {
+        if (keys == null) {
+            return List.of();
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (key != null && !key.isBlank()) {
+                distinct.add(key.trim());
+            }
+        }
+        return new ArrayList<>(distinct);
     }
 
+    /**
+     * Result of one service-type flow within a multi service-type query: either its response or its error.
+     */
+    private record ServiceTypeOutcome(String serviceType, ResponseEntity<GetInventoryResponse> response, Throwable error) {
+
+        boolean succeeded() {
+            return response != null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null;
+        }
+
+        boolean noInventory() {
+            return error instanceof NoInventoryFoundException;
+        }
+
+        /**
+         * The type's own page: as returned by the flow, or an empty page when the type has no inventory.
+         */
+        PaginationResponse pagination(InventoryQueryParams queryParams) {
+            PaginationResponse pagination = new PaginationResponse();
+            List<PaginationResponse> typePagination = succeeded() ? response.getBody().getPagination() : null;
+            if (typePagination != null && !typePagination.isEmpty()) {
+                pagination.setPageNumber(typePagination.get(0).getPageNumber());
+                pagination.setPageSize(typePagination.get(0).getPageSize());
+                pagination.setTotalRecords(typePagination.get(0).getTotalRecords());
+            } else {
+                pagination.setPageNumber(queryParams.resolvedPageNumber());
+                pagination.setPageSize(queryParams.resolvedPageSize());
+                pagination.setTotalRecords(succeeded() ? null : 0);
+            }
+            pagination.setServiceType(serviceType);
+            return pagination;
+        }
+
+        InventoryError toError() {
+            InventoryError inventoryError = new InventoryError();
+            inventoryError.setServiceType(serviceType);
+            if (response != null) {
+                inventoryError.setStatus(response.getStatusCode().value());
+                inventoryError.setMessage(serviceType + " inventory could not be retrieved");
+            } else {
+                inventoryError.setMessage(error.getMessage());
+            }
+            return inventoryError;
+        }
+    }
 }
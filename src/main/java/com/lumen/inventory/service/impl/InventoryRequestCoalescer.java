@@ -0,0 +1,84 @@
+package com.lumen.inventory.service.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-flight layer for inventory queries.
+ *
+ * <p>Concurrent requests for the same normalized {@link InventoryQueryParams} share one upstream execution:
+ * the first request runs the SNOW, AM and GLM chain and every identical request arriving while it is still in
+ * flight receives the same result. Once the execution completes (successfully or not) the next request starts
+ * a fresh one, so results are never served beyond the lifetime of the call that produced them.</p>
+ *
+ * <ul>
+ *   <li>{@code inventory.requests{outcome=executed}} - requests that ran the upstream chain</li>
+ *   <li>{@code inventory.requests{outcome=coalesced}} - requests that joined an execution already in flight</li>
+ *   <li>{@code inventory.requests.coalescing.ratio} - share of requests that were coalesced</li>
+ * </ul>
+ */
+@Component
+public class InventoryRequestCoalescer {
+
+    private final ConcurrentHashMap<InventoryQueryParams, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public InventoryRequestCoalescer(MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("inventory.requests")
+            .tag("outcome", "executed")
+            .description("Inventory requests that ran the upstream chain")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("inventory.requests")
+            .tag("outcome", "coalesced")
+            .description("Inventory requests that shared an execution already in flight")
+            .register(meterRegistry);
+        Gauge.builder("inventory.requests.coalescing.ratio", this, InventoryRequestCoalescer::coalescingRatio)
+            .description("Share of inventory requests served by an execution already in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code upstream} for the given query, or joins the execution already in flight for an identical query.
+     *
+     * @param queryParams normalized query parameters, used as the coalescing key
+     * @param upstream supplies the upstream execution; only invoked when no identical query is in flight
+     * @return Mono emitting the shared result
+     */
+    public Mono<ResponseEntity<GetInventoryResponse>> execute(InventoryQueryParams queryParams,
+                                                             Supplier<Mono<ResponseEntity<GetInventoryResponse>>> upstream) {
+        return Mono.defer(() -> {
+            Flight flight = new Flight();
+            flight.result = Mono.defer(upstream)
+                .doFinally(signal -> inFlight.remove(queryParams, flight))
+                .cache();
+            Flight current = inFlight.putIfAbsent(queryParams, flight);
+            if (current != null) {
+                coalesced.increment();
+                return current.result;
+            }
+            executed.increment();
+            return flight.result;
+        });
+    }
+
+    private double coalescingRatio() {
+        double total = executed.count() + coalesced.count();
+        return total == 0 ? 0.0 : coalesced.count() / total;
+    }
+
+    private static final class Flight {
+        private Mono<ResponseEntity<GetInventoryResponse>> result;
+    }
+}
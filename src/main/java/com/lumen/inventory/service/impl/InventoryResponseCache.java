@@ -0,0 +1,129 @@
+package com.lumen.inventory.service.impl;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lumen.inventory.config.InventoryResponseCacheProperties;
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Short-lived, opt-in cache of successful inventory responses with ETag support.
+ *
+ * <p>When {@code naas.inventory.response-cache.enabled} is set, successful responses are kept per normalized
+ * query for {@code naas.inventory.response-cache.ttl} together with a content-hash {@code ETag}. A cached response
+ * is returned without any upstream call, and a request whose {@code If-None-Match} matches the ETag gets a
+ * {@code 304 Not Modified} without a body, so nothing is serialized either. When disabled, responses pass
+ * through untouched.</p>
+ */
+@Slf4j
+@Component
+public class InventoryResponseCache {
+
+    private static final String CACHE_NAME = "inventory.response";
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Cache<InventoryQueryParams, CachedResponse> cache;
+
+    public InventoryResponseCache(InventoryResponseCacheProperties properties,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+    }
+
+    /**
+     * Serves the query from the cache, or loads, caches and tags it with an ETag.
+     *
+     * @param queryParams normalized query parameters, used as the cache key
+     * @param ifNoneMatch the request's {@code If-None-Match} header, if any
+     * @param loader supplies the upstream execution; only invoked on a cache miss
+     * @return Mono emitting the response: 304 when {@code ifNoneMatch} matches, otherwise the full response
+     */
+    public Mono<ResponseEntity<GetInventoryResponse>> getOrLoad(InventoryQueryParams queryParams,
+                                                               Optional<String> ifNoneMatch,
+                                                               Supplier<Mono<ResponseEntity<GetInventoryResponse>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return Mono.defer(() -> {
+            CachedResponse cached = cache.getIfPresent(queryParams);
+            if (cached != null) {
+                return Mono.just(cached.toResponse(ifNoneMatch));
+            }
+            return loader.get().map(response -> {
+                CachedResponse loaded = store(queryParams, response);
+                return loaded != null ? loaded.toResponse(ifNoneMatch) : response;
+            });
+        });
+    }
+
+    private CachedResponse store(InventoryQueryParams queryParams, ResponseEntity<GetInventoryResponse> response) {
+        if (!response.getStatusCode().isSameCodeAs(HttpStatus.OK) || response.getBody() == null) {
+            return null;
+        }
+        if (response.getBody().getErrors() != null && !response.getBody().getErrors().isEmpty()) {
+            // partial responses are not cached, so the failed service types are retried on the next request.
+            return null;
+        }
+        if (Boolean.TRUE.equals(response.getBody().getPartial())) {
+            // neither are responses missing enrichments, so the next request enriches them again.
+            return null;
+        }
+        try {
+            String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(response.getBody())) + "\"";
+            CachedResponse cached = new CachedResponse(response.getBody(), etag);
+            cache.put(queryParams, cached);
+            return cached;
+        } catch (JsonProcessingException e) {
+            log.warn("Inventory response not cached, ETag could not be computed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record CachedResponse(GetInventoryResponse body, String etag) {
+
+        ResponseEntity<GetInventoryResponse> toResponse(Optional<String> ifNoneMatch) {
+            if (ifNoneMatch.isPresent() && matches(ifNoneMatch.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(body);
+        }
+
+        private boolean matches(String ifNoneMatch) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.lumen.inventory.service.internet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Part of a requested page that lives in one customer chunk: the SNOW page of that chunk to read and the
+ * range of product positions within it.
+ * <p>
+ * When the customer list is split into chunks, the merged result is the concatenation of the chunks in order,
+ * so the requested page maps onto a contiguous range of each chunk's own SNOW pages.
+ * </p>
+ *
+ * @param chunkIndex index of the customer chunk
+ * @param snowPageNumber SNOW page of the chunk holding the products (same page size as requested)
+ * @param fromIndex first product position to keep within that SNOW page (inclusive)
+ * @param toIndex last product position to keep within that SNOW page (exclusive)
+ */
+record ChunkPageSlice(int chunkIndex, int snowPageNumber, int fromIndex, int toIndex) {
+
+    /**
+     * Plans which SNOW pages of which chunks make up the requested page.
+     *
+     * @param chunkTotals total record count of every chunk, in chunk order
+     * @param pageNumber requested page number (1-based)
+     * @param pageSize requested page size, also used as SNOW page size for every chunk
+     * @return the slices, in merge order; empty when the page lies beyond the last record
+     */
+    static List<ChunkPageSlice> plan(List<Integer> chunkTotals, int pageNumber, int pageSize) {
+        long windowStart = (long) (pageNumber - 1) * pageSize;
+        long windowEnd = windowStart + pageSize;
+        List<ChunkPageSlice> slices = new ArrayList<>();
+        long chunkStart = 0;
+        for (int chunkIndex = 0; chunkIndex < chunkTotals.size() && chunkStart < windowEnd; chunkIndex++) {
+            long chunkEnd = chunkStart + chunkTotals.get(chunkIndex);
+            long from = Math.max(windowStart, chunkStart) - chunkStart;
+            long to = Math.min(windowEnd, chunkEnd) - chunkStart;
+            // [from, to) are positions within the chunk; split them along the chunk's SNOW pages.
+            while (from < to) {
+                int snowPage = (int) (from / pageSize);
+                long snowPageEnd = (long) (snowPage + 1) * pageSize;
+                long sliceEnd = Math.min(to, snowPageEnd);
+                slices.add(new ChunkPageSlice(chunkIndex, snowPage + 1,
+                        (int) (from - (long) snowPage * pageSize), (int) (sliceEnd - (long) snowPage * pageSize)));
+                from = sliceEnd;
+            }
+            chunkStart = chunkEnd;
+        }
+        return slices;
+    }
+}
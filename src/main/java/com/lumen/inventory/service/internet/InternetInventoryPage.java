@@ -0,0 +1,55 @@
+package com.lumen.inventory.service.internet;
+
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.service.mapper.MappedProduct;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One page of Internet inventory, as requested from ServiceNow.
+ * <p>
+ * A page is created as soon as the SNOW payload has been parsed; AM and GLM enrichment update its inventory
+ * items in place afterwards, so parsing the next page does not have to wait for the enrichment of this one.
+ * </p>
+ *
+ * @param pageNumber the SNOW page number
+ * @param pageSize the SNOW page size
+ * @param mappedProducts mapped products of the page (after serviceId filtering), in payload order
+ * @param bans distinct BANs of those products, to be resolved through AM
+ * @param snowProductCount number of products SNOW returned for the page, before serviceId filtering
+ * @param totalRecords total record count reported by SNOW, or {@code null} if unknown
+ */
+record InternetInventoryPage(int pageNumber, int pageSize, List<MappedProduct> mappedProducts, List<String> bans,
+                             int snowProductCount, Integer totalRecords) {
+
+    /**
+     * Inventory items of the page, in payload order.
+     */
+    List<ServiceInventory> inventoryList() {
+        return mappedProducts.stream().map(MappedProduct::inventory).collect(Collectors.toList());
+    }
+
+    /**
+     * Whether this page lies past the last SNOW page of a query that does match inventory: SNOW returned no
+     * products for it but reports records in total. When SNOW does not report a total this cannot be told apart
+     * from a query matching nothing, so it is treated as such.
+     */
+    boolean isPastLastPage() {
+        return snowProductCount == 0 && totalRecords != null && totalRecords > 0;
+    }
+
+    /**
+     * Whether SNOW has more pages after this one: decided by the total record count when SNOW reports it,
+     * otherwise by whether this page came back full.
+     */
+    boolean hasNextPage() {
+        if (snowProductCount == 0) {
+            return false;
+        }
+        if (totalRecords != null) {
+            return (long) pageNumber * pageSize < totalRecords;
+        }
+        return snowProductCount >= pageSize;
+    }
+}
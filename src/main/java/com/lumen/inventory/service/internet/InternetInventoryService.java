@@ -1,16 +1,25 @@
 package com.lumen.inventory.service.internet;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
 import com.lumen.error.enums.ErrorCode;
 import com.lumen.error.exception.ProcessingException;
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
 import com.lumen.inventory.dto.InventoryQueryParams;
 import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.PaginationResponse;
 import com.lumen.inventory.dto.responses.Product;
 import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.exception.NoInventoryFoundException;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.integration.resilience.UpstreamUnavailableException;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.deadline.RequestDeadlineExceededException;
 import com.lumen.inventory.service.enrichement.InventoryEnrichmentService;
 import com.lumen.inventory.service.enrichement.LocationEnrichmentService;
 import com.lumen.inventory.service.mapper.InventoryMapper;
+import com.lumen.inventory.service.mapper.MappedProduct;
+import com.lumen.inventory.service.mapper.SnowProductPage;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
 import com.lumen.snow.service.SNOWRestClient;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,11 +28,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -37,7 +54,8 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>Fetches inventory data from ServiceNow (SNOW)</li>
  *   <li>Enriches data with Account Management (AM) and other services</li>
- *   <li>Applies filtering based on serviceId if provided</li>
+ *   <li>Applies filtering based on serviceId if provided, before any enrichment</li>
+ *   <li>Splits long customer lists into chunks queried concurrently, de-duplicating services by id</li>
  * </ul>
  *
  * @author API Development Team
@@ -60,102 +78,401 @@ public class InternetInventoryService {
     @Autowired
     private LocationEnrichmentService locationEnrichmentService;
 
+    @Autowired
+    private InventoryEnrichmentProperties inventoryEnrichmentProperties;
+
+    @Autowired
+    private InventoryStageMetrics inventoryStageMetrics;
+
+    @Autowired
+    private UpstreamGuard upstreamGuard;
+
     @Value("${naas.product.specification.name.for.SNow:Internet}")
     private String productOfferingNameForSnow;
 
+    @Value("${snow.naas.total.count.header:X-Total-Count}")
+    private String snowTotalCountHeader;
+
     /**
-     * Retrieves Internet inventory for the given query parameters.
+     * Retrieves Internet inventory for the given query parameters without holding a thread.
      * <p>
-     * This method fetches inventory data from ServiceNow, enriches it, and applies
-     * filtering by serviceId if present.
+     * This method fetches inventory data from ServiceNow, applies filtering by serviceId if present,
+     * and enriches the remaining items. The SNOW, AM and GLM stages are composed into one
+     * {@link Mono} pipeline; no stage blocks the calling thread.
      * </p>
      *
      * @param queryParams Query parameters (customerNumbers, serviceType, serviceId)
-     * @return ResponseEntity containing the enriched and filtered inventory response
+     * @return Mono emitting the enriched and filtered inventory response
      */
-    public ResponseEntity<GetInventoryResponse> getInventoryInternetList(InventoryQueryParams queryParams) {
+    public Mono<ResponseEntity<GetInventoryResponse>> getInventoryInternetListAsync(InventoryQueryParams queryParams) {
         log.info("Processing Internet inventory request");
-        List<String> customerNumbers = queryParams.customerNumbers();//Retrieves the list of customer numbers from the query parameters.
-        ResponseEntity<GetInventoryResponse> responseEntity;
-        try {
-            responseEntity = getInternetServiceInformation(String.join(",", customerNumbers));
-        } catch (JsonProcessingException | InterruptedException e) {
-            log.error("Error occurred while retrieving Internet service information", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new GetInventoryResponse());
-        }//Tries to fetch and enrich inventory data for the given customers and handles any exceptions that may occur during this process.
-        GetInventoryResponse enrichedResponse = responseEntity.getBody();
-        GetInventoryResponse inventoryResponse = new GetInventoryResponse();
-        inventoryResponse.setInventoryList(new ArrayList<>());
-        //Gets the body of the response (the enriched inventory). Initializes a new response object with an empty inventory list.
-        if (enrichedResponse != null) {
-            inventoryResponse.setInventoryList(enrichedResponse.getInventoryList());
-            if (queryParams.serviceId() != null && queryParams.serviceId().isPresent()) {
-                List<ServiceInventory> filteredList = inventoryResponse.getInventoryList().stream()
-                        .filter(x -> x.getServiceId() != null && x.getServiceId().equalsIgnoreCase(queryParams.serviceId().get()))
-                        .collect(Collectors.toList());
-                inventoryResponse.setInventoryList(filteredList);
-            }
-            return new ResponseEntity<>(inventoryResponse, responseEntity.getStatusCode());
-            //If the enriched response is not null, copies its inventory list to the new response.
-            //If a serviceId is present in the query, filters the inventory list to only include items with a matching service ID.
-            //Returns the filtered (or unfiltered) inventory response with the original HTTP status.
+        return getInternetServiceInformation(queryParams)
+                .map(enrichedResponse -> new ResponseEntity<>(enrichedResponse, HttpStatus.OK))
+                //If a serviceId is present in the query, only the matching service was enriched, so the response needs no further filtering.
+                .onErrorResume(JsonProcessingException.class, e -> {
+                    log.error("Error occurred while retrieving Internet service information", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new GetInventoryResponse()));
+                });//Handles a SNOW payload that cannot be parsed the same way as before: 500 with an empty body.
+    }
+
+    /**
+     * Streams the Internet inventory of all SNOW pages, one enriched item at a time.
+     * <p>
+     * Pages are requested from ServiceNow in sequence (starting at the requested page number). The next page is
+     * prefetched while the current one is being enriched, so SNOW round trips overlap with AM and GLM, and memory
+     * stays bounded by two pages no matter how large the account is. Customer lists longer than {@code naas.inventory.snow-customer-chunk-size} are
+     * walked chunk by chunk, several chunks at a time, each from its first page; items of a service already
+     * emitted for another chunk are skipped.
+     * </p>
+     *
+     * @param queryParams Query parameters (customerNumbers, serviceId, pageNumber, pageSize); pageSize is the
+     *                    SNOW page size used while walking (default: {@link InventoryQueryParams#MAX_PAGE_SIZE})
+     * @return Flux emitting every enriched inventory item
+     */
+    public Flux<ServiceInventory> streamInventoryInternetList(InventoryQueryParams queryParams) {
+        log.info("Processing Internet inventory export");
+        int pageSize = queryParams.pageSize().orElse(InventoryQueryParams.MAX_PAGE_SIZE);
+        List<List<String>> chunks = customerChunks(queryParams.customerNumbers());
+        if (chunks.size() == 1) {
+            return walkInternetInventory(queryParams.customerNumbers(), queryParams.serviceId(), queryParams.resolvedPageNumber(), pageSize);
         }
-        return responseEntity;//If the enriched response was null, returns the original response as is.
+        Set<String> emittedServiceIds = ConcurrentHashMap.newKeySet();
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> walkInternetInventory(chunk, queryParams.serviceId(), InventoryQueryParams.DEFAULT_PAGE_NUMBER, pageSize),
+                        maxConcurrentSnowCalls())
+                .filter(inventory -> isFirstOccurrence(emittedServiceIds, inventory));
+    }
+
+    private Flux<ServiceInventory> walkInternetInventory(List<String> customerNumbers, Optional<String> serviceId, int firstPageNumber, int pageSize) {
+        return snowPages(customerNumbers, serviceId, firstPageNumber, pageSize)
+                .concatMap(this::enrichPage, 1)
+                .concatMapIterable(InternetInventoryPage::inventoryList);
+    }
+
+    /**
+     * Walks every SNOW page of the given customers, parsed but not yet enriched.
+     * <p>
+     * Page N+1 is requested as soon as page N has been parsed, so when a downstream stage is still enriching
+     * page N the next round trip is already under way. Whether a next page exists is decided by
+     * {@link InternetInventoryPage#hasNextPage()}. Cancelling the returned Flux stops the walk, including a
+     * prefetch in flight.
+     * </p>
+     *
+     * @param customerNumbers customer numbers sent to ServiceNow
+     * @param serviceId optional serviceId filter, applied while parsing
+     * @param firstPageNumber SNOW page to start at
+     * @param pageSize SNOW page size
+     * @return Flux emitting the parsed pages in order
+     */
+    private Flux<InternetInventoryPage> snowPages(List<String> customerNumbers, Optional<String> serviceId, int firstPageNumber, int pageSize) {
+        return fetchSnowPage(customerNumbers, serviceId, firstPageNumber, pageSize)
+                .expand(page -> page.hasNextPage()
+                        ? fetchSnowPage(customerNumbers, serviceId, page.pageNumber() + 1, pageSize)
+                        : Mono.empty());
     }
 
     /**
-     * Fetches and enriches Internet inventory data from ServiceNow for the given customer numbers.
+     * Fetches and enriches one page of Internet inventory data from ServiceNow for the given customer numbers.
      * <p>
-     * This method performs the following steps:
+     * The requested page number and size are passed to ServiceNow, so only that page is parsed and enriched.
+     * The total record count reported by ServiceNow (if any) is returned in the response pagination. A page
+     * number past the last page yields an empty inventory list with that total; only a query matching no
+     * inventory at all is reported as {@link NoInventoryFoundException}.
+     * When a serviceId is given, ServiceNow cannot filter on it, so the pages are searched instead
+     * (see {@link #findServiceInventoryPage(InventoryQueryParams)}).
+     * </p>
+     *
+     * @param queryParams Query parameters (customerNumbers, serviceId, pageNumber, pageSize); when a serviceId is
+     *                    present only the matching product is enriched
+     * @return Mono emitting the enriched inventory response, or a {@link NoInventoryFoundException} error
+     */
+    private Mono<GetInventoryResponse> getInternetServiceInformation(InventoryQueryParams queryParams) {
+        String distinctCustNumbersFromCustAcct = String.join(",", queryParams.customerNumbers());
+        Mono<InternetInventoryPage> requestedPage = queryParams.serviceId().isPresent()
+                ? findServiceInventoryPage(queryParams)
+                : fetchRequestedPage(queryParams, queryParams.resolvedPageNumber(), queryParams.resolvedPageSize());
+        return requestedPage
+                .switchIfEmpty(Mono.error(() -> new NoInventoryFoundException(
+                        "No ServiceNow response or empty body for customers: " + distinctCustNumbersFromCustAcct)))
+                //no data received from ServiceNow.
+                .flatMap(page -> {
+                    if (page.snowProductCount() == 0 && !page.isPastLastPage()) {
+                        return Mono.error(new NoInventoryFoundException("No Internet inventory records found after enrichment for customers: " + distinctCustNumbersFromCustAcct));
+                        // no data after enrichment.
+                    }
+                    GetInventoryResponse getInventoryResponse = new GetInventoryResponse();
+                    getInventoryResponse.setInventoryList(page.inventoryList());
+                    if (queryParams.serviceId().isPresent()) {
+                        setPagination(getInventoryResponse, queryParams.resolvedPageNumber(), queryParams.resolvedPageSize(), getInventoryResponse.getInventoryList().size());
+                    } else {
+                        setPagination(getInventoryResponse, page.pageNumber(), page.pageSize(), page.totalRecords());
+                    }
+                    log.info("getInternetServiceInformation GetInventory   getInternetServiceInformation method ended");
+                    return Mono.just(getInventoryResponse);
+                });
+    }
+
+    /**
+     * Searches the SNOW pages of all customers for the requested serviceId.
+     * <p>
+     * Pages are walked with the largest SNOW page size and prefetched as in {@link #snowPages}; customer chunks are
+     * searched concurrently. The search stops at the first page holding the service, so the remaining pages are
+     * never fetched, and only that page is enriched. When no page matches, the last page searched is returned
+     * (with no inventory).
+     * </p>
+     *
+     * @param queryParams Query parameters (customerNumbers, serviceId)
+     * @return Mono emitting the page holding the service, or empty if ServiceNow returned no body
+     */
+    private Mono<InternetInventoryPage> findServiceInventoryPage(InventoryQueryParams queryParams) {
+        return Flux.fromIterable(customerChunks(queryParams.customerNumbers()))
+                .flatMap(chunk -> snowPages(chunk, queryParams.serviceId(), InventoryQueryParams.DEFAULT_PAGE_NUMBER, InventoryQueryParams.MAX_PAGE_SIZE),
+                        maxConcurrentSnowCalls())
+                .takeUntil(page -> !page.mappedProducts().isEmpty())
+                .reduce((searched, next) -> next.mappedProducts().isEmpty() && next.snowProductCount() == 0 ? searched : next)
+                .flatMap(this::enrichPage);
+    }
+
+    /**
+     * Fetches the requested page with one SNOW call, or, for customer lists longer than
+     * {@code naas.inventory.snow-customer-chunk-size}, with one call per customer chunk.
+     */
+    private Mono<InternetInventoryPage> fetchRequestedPage(InventoryQueryParams queryParams, int pageNumber, int pageSize) {
+        List<List<String>> chunks = customerChunks(queryParams.customerNumbers());
+        if (chunks.size() == 1) {
+            return fetchInternetInventoryPage(queryParams.customerNumbers(), queryParams.serviceId(), pageNumber, pageSize);
+        }
+        return fetchChunkedInventoryPage(queryParams, chunks, pageNumber, pageSize);
+    }
+
+    /**
+     * Fetches and enriches a single SNOW page.
+     * <p>
+     * This method performs the following steps as a single reactive pipeline:
      * <ul>
      *   <li>Calls ServiceNow API to retrieve raw inventory data</li>
-     *   <li>Parses and maps the response to Product objects</li>
-     *   <li>Enriches the data with Account Management (AM) information</li>
-     *   <li>Builds and returns the final inventory response</li>
+     *   <li>Streams the response product by product into ServiceInventory objects, skipping products
+     *       that do not match the requested serviceId so they are never enriched</li>
+     *   <li>Looks up Account Management (AM) billing accounts and GLM locations concurrently</li>
+     *   <li>Merges both results into the inventory</li>
      * </ul>
      * </p>
      *
-     * @param distinctCustNumbersFromCustAcct Comma-separated customer numbers for ServiceNow query
-     * @return ResponseEntity containing the enriched inventory response
-     * @throws JsonMappingException if JSON mapping fails
-     * @throws JsonProcessingException if JSON processing fails
-     * @throws InterruptedException if thread is interrupted during enrichment
-     */
-    private ResponseEntity<GetInventoryResponse> getInternetServiceInformation(String distinctCustNumbersFromCustAcct)
-            throws JsonMappingException, JsonProcessingException, InterruptedException {
+     * @param customerNumbers customer numbers sent to ServiceNow
+     * @param serviceId optional serviceId filter
+     * @param pageNumber SNOW page number
+     * @param pageSize SNOW page size
+     * @return Mono emitting the enriched page, or empty if ServiceNow returned no body
+     */
+    private Mono<InternetInventoryPage> fetchInternetInventoryPage(List<String> customerNumbers, Optional<String> serviceId, int pageNumber, int pageSize) {
+        return fetchSnowPage(customerNumbers, serviceId, pageNumber, pageSize).flatMap(this::enrichPage);
+    }
+
+    /**
+     * Fetches and parses a single SNOW page, without enriching it.
+     *
+     * @return Mono emitting the parsed page, or empty if ServiceNow returned no body
+     */
+    private Mono<InternetInventoryPage> fetchSnowPage(List<String> customerNumbers, Optional<String> serviceId, int pageNumber, int pageSize) {
+        return callSnow(customerNumbers, pageNumber, pageSize)
+                .publishOn(Schedulers.parallel())
+                .flatMap(responseEntity -> {
+                    log.info("getInternetServiceInformation   snowRestClient call ended");
+                    SnowProductPage snowProducts;
+                    try {
+                        snowProducts = inventoryEnrichmentService.mapSnowProducts(responseEntity.getBody(), InventoryMapper.serviceIdFilter(serviceId));
+                        //Streams the JSON body product by product, mapping each matching product to a ServiceInventory and collecting the distinct BANs as it goes.
+                    } catch (JsonProcessingException e) {
+                        return Mono.error(e);
+                    }
+                    return Mono.just(new InternetInventoryPage(pageNumber, pageSize, snowProducts.mappedProducts(), snowProducts.bans(),
+                            snowProducts.totalProducts(), getTotalRecords(responseEntity)));
+                });
+    }
+
+    /**
+     * Fetches the requested page for a customer list split into chunks, as if all customers had been sent at once.
+     * <p>
+     * The merged result is the concatenation of the chunks in order. The first SNOW page of every chunk is fetched
+     * concurrently (at most {@code naas.inventory.max-concurrent-snow-calls} at a time) and reports the chunk's
+     * total record count; from these totals {@link ChunkPageSlice#plan(List, int, int)} derives which SNOW pages of
+     * which chunks hold the requested page. Only products inside the page are mapped, a service that appears
+     * under several chunks is kept once, and AM and GLM enrichment run once for the merged page. If ServiceNow
+     * does not report a total for some chunk, the page is fetched with a single call for all customers instead.
+     * </p>
+     *
+     * @return Mono emitting the enriched page, or empty if ServiceNow returned no body for any chunk
+     */
+    private Mono<InternetInventoryPage> fetchChunkedInventoryPage(InventoryQueryParams queryParams, List<List<String>> chunks, int pageNumber, int pageSize) {
+        int concurrency = maxConcurrentSnowCalls();
+        log.info("getInternetServiceInformation   querying ServiceNow for {} customers in {} chunks", queryParams.customerNumbers().size(), chunks.size());
+        return Flux.fromIterable(chunks)
+                .flatMapSequential(chunk -> callSnow(chunk, InventoryQueryParams.DEFAULT_PAGE_NUMBER, pageSize)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()), concurrency)
+                .collectList()
+                .flatMap(firstPages -> {
+                    if (firstPages.stream().allMatch(Optional::isEmpty)) {
+                        return Mono.empty();
+                    }
+                    List<Integer> chunkTotals = new ArrayList<>();
+                    for (Optional<ResponseEntity<String>> firstPage : firstPages) {
+                        Integer chunkTotal = firstPage.isPresent() ? getTotalRecords(firstPage.get()) : Integer.valueOf(0);
+                        if (chunkTotal == null) {
+                            log.warn("ServiceNow did not report {} for a customer chunk, querying all customers at once", snowTotalCountHeader);
+                            return fetchInternetInventoryPage(queryParams.customerNumbers(), queryParams.serviceId(), pageNumber, pageSize);
+                        }
+                        chunkTotals.add(chunkTotal);
+                    }
+                    int totalRecords = chunkTotals.stream().mapToInt(Integer::intValue).sum();
+                    Predicate<Product> serviceIdFilter = InventoryMapper.serviceIdFilter(queryParams.serviceId());
+                    return Flux.fromIterable(ChunkPageSlice.plan(chunkTotals, pageNumber, pageSize))
+                            .flatMapSequential(slice -> {
+                                Mono<ResponseEntity<String>> snowPage = slice.snowPageNumber() == InventoryQueryParams.DEFAULT_PAGE_NUMBER
+                                        ? Mono.justOrEmpty(firstPages.get(slice.chunkIndex()))
+                                        : callSnow(chunks.get(slice.chunkIndex()), slice.snowPageNumber(), pageSize);
+                                return snowPage.publishOn(Schedulers.parallel())
+                                        .flatMap(responseEntity -> mapSlice(responseEntity.getBody(), slice, serviceIdFilter));
+                            }, concurrency)
+                            .collectList()
+                            .flatMap(slicePages -> {
+                                List<MappedProduct> mappedProducts = new ArrayList<>();
+                                Set<String> bans = new LinkedHashSet<>();
+                                Set<String> seenServiceIds = new HashSet<>();
+                                int snowProductCount = 0;
+                                for (SnowProductPage slicePage : slicePages) {
+                                    snowProductCount += slicePage.totalProducts();
+                                    for (MappedProduct mappedProduct : slicePage.mappedProducts()) {
+                                        if (isFirstOccurrence(seenServiceIds, mappedProduct.inventory())) {
+                                            mappedProducts.add(mappedProduct);
+                                            if (mappedProduct.ban() != null) {
+                                                bans.add(mappedProduct.ban());
+                                            }
+                                        }
+                                    }
+                                }
+                                return enrichPage(new InternetInventoryPage(pageNumber, pageSize, mappedProducts, new ArrayList<>(bans),
+                                        snowProductCount, totalRecords));
+                            });
+                });
+    }
+
+    /**
+     * Maps the products of one chunk page that fall inside the slice (and match the serviceId filter).
+     * The returned page counts the products inside the slice as its {@code totalProducts}.
+     */
+    private Mono<SnowProductPage> mapSlice(String snowJson, ChunkPageSlice slice, Predicate<Product> serviceIdFilter) {
+        int[] position = {0};
+        Predicate<Product> insideSlice = product -> {
+            int index = position[0]++;
+            return index >= slice.fromIndex() && index < slice.toIndex() && serviceIdFilter.test(product);
+        };
+        try {
+            SnowProductPage chunkPage = inventoryEnrichmentService.mapSnowProducts(snowJson, insideSlice);
+            int productsInSlice = Math.max(0, Math.min(chunkPage.totalProducts(), slice.toIndex()) - slice.fromIndex());
+            return Mono.just(new SnowProductPage(chunkPage.mappedProducts(), chunkPage.bans(), productsInSlice));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    /**
+     * Calls ServiceNow for one page of the given customers; empty if ServiceNow returned no body.
+     * The call goes through the SNOW bulkhead, timeout and circuit breaker; a call they refuse or abandon fails the
+     * request with SERVICE_UNAVAILABLE, since there is no inventory without SNOW. The same applies once the request
+     * deadline has passed: the call only gets the budget that is left.
+     */
+    private Mono<ResponseEntity<String>> callSnow(List<String> customerNumbers, int pageNumber, int pageSize) {
+        String distinctCustNumbersFromCustAcct = String.join(",", customerNumbers);//Comma-separated customer numbers for ServiceNow query.
         log.info("getInternetServiceInformation   snowRestClient call starting");
-        ResponseEntity<String> responseEntity = snowRestClient.getInventoryInternetInformationBasedOnMultipleCustomers(
-            //Calls the ServiceNow client to fetch raw inventory data for the given customer numbers, with pagination and page size parameters.
-            distinctCustNumbersFromCustAcct, Optional.of(100), Optional.of(20), naasInventoryDetailMaxPageSize, Optional.empty()).block();
-        log.info("getInternetServiceInformation   snowRestClient call ended");
-        if (responseEntity != null && responseEntity.getBody() != null) {
-            List<Product> productList = InventoryMapper.mapJsonToProductList(responseEntity.getBody());//Maps the JSON response body to a list of Product objects.
-            List<String> banList = InventoryMapper.getDistinctAlternateNumbersFromSnow(productList);//Extracts a list of distinct alternate numbers (BANs) from the product list.
-            log.info("getInternetServiceInformation  fillBanHashMapByCallingAMService multithreading starting");
-            //AM Enrichement Process starts here - using multithreading to call AM service for each BAN in parallel and build a map of alternate number to invoice display customer number.
-            ConcurrentHashMap<String, String> mapAlternateToInvoiceDisplayCustomerNumber = inventoryEnrichmentService.fillBanHashMapByCallingAMService(banList);
-            //Calls the enrichment service to map alternate numbers to invoice display customer numbers, possibly using multithreading.
-            log.info("getInternetServiceInformation  fillBanHashMapByCallingAMService multithreading ended");
-            List<ServiceInventory> serviceInventoryList = inventoryEnrichmentService.enrichProductList(
-                    productList,
-                    mapAlternateToInvoiceDisplayCustomerNumber,
-                    productOfferingNameForSnow
-            );//Enriches the product list with additional data, producing a list of ServiceInventory objects.
-            if (serviceInventoryList != null && !serviceInventoryList.isEmpty()) {
-                GetInventoryResponse getInventoryResponse = new GetInventoryResponse();
-                getInventoryResponse.setInventoryList(serviceInventoryList);
-                //Creates a new response object and sets its inventory list.
-                locationEnrichmentService.enrichLocationInformation(getInventoryResponse);
-                //Further enriches the response with location information. (GLM)
-                log.info("getInternetServiceInformation GetInventory   getInternetServiceInformation method ended");
-                return new ResponseEntity<>(getInventoryResponse, HttpStatus.OK);
-            } else {
-                throw new ProcessingException(ErrorCode.NOT_FOUND, "No Internet inventory records found after enrichment for customers: " + distinctCustNumbersFromCustAcct);
-                // no data after enrichment.
-            }
+        return inventoryStageMetrics.time(InventoryStageMetrics.SNOW_FETCH, RequestDeadline.limit(InventoryStageMetrics.SNOW_FETCH,
+                        upstreamGuard.guard(UpstreamGuard.SNOW, snowRestClient.getInventoryInternetInformationBasedOnMultipleCustomers(
+                        //Calls the ServiceNow client to fetch raw inventory data for the given customer numbers, with pagination and page size parameters.
+                        distinctCustNumbersFromCustAcct, Optional.of(pageNumber), Optional.of(pageSize), naasInventoryDetailMaxPageSize, Optional.empty()))))
+                .onErrorMap(e -> e instanceof UpstreamUnavailableException || e instanceof RequestDeadlineExceededException,
+                        e -> new ProcessingException(ErrorCode.SERVICE_UNAVAILABLE, e.getMessage()))
+                .filter(responseEntity -> responseEntity.getBody() != null)
+                .doOnNext(responseEntity -> inventoryStageMetrics.countPayload(InventoryStageMetrics.SNOW_FETCH, responseEntity));
+    }
+
+    /**
+     * Looks up AM billing accounts and GLM locations concurrently for the page's products and merges both into
+     * its inventory once they returned.
+     */
+    private Mono<InternetInventoryPage> enrichPage(InternetInventoryPage page) {
+        if (page.mappedProducts().isEmpty()) {
+            return Mono.just(page);
+            // no product (matching the requested serviceId) on this page: nothing to enrich.
         }
-        throw new ProcessingException(ErrorCode.NOT_FOUND, "No ServiceNow response or empty body for customers: " + distinctCustNumbersFromCustAcct);
-        //no data received from ServiceNow.
+        List<MappedProduct> mappedProducts = page.mappedProducts();
+        List<ServiceInventory> serviceInventoryList = page.inventoryList();
+        //AM (billing accounts) and GLM (locations) only depend on the SNOW data, so both start now.
+        log.info("getInternetServiceInformation  AM and GLM enrichment starting");
+        return Mono.zip(
+                        inventoryEnrichmentService.fillBanHashMapByCallingAMServiceAsync(page.bans()),
+                        locationEnrichmentService.fetchSiteLocations(serviceInventoryList))
+                .map(amAndGlm -> {
+                    inventoryEnrichmentService.applyBillingAccounts(mappedProducts, amAndGlm.getT1());
+                    locationEnrichmentService.applyLocations(serviceInventoryList, amAndGlm.getT2());
+                    //Merges the AM billing accounts and GLM site addresses into the inventory once both lookups returned.
+                    return page;
+                });
+    }
+
+    /**
+     * Splits the customer numbers into chunks of at most {@code naas.inventory.snow-customer-chunk-size}.
+     */
+    private List<List<String>> customerChunks(List<String> customerNumbers) {
+        int chunkSize = Math.max(1, inventoryEnrichmentProperties.getSnowCustomerChunkSize());
+        if (customerNumbers.size() <= chunkSize) {
+            return List.of(customerNumbers);
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < customerNumbers.size(); from += chunkSize) {
+            chunks.add(customerNumbers.subList(from, Math.min(customerNumbers.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+
+    private int maxConcurrentSnowCalls() {
+        return Math.max(1, inventoryEnrichmentProperties.getMaxConcurrentSnowCalls());
+    }
+
+    /**
+     * De-duplicates by service id (case-insensitive); items without a service id are always kept.
+     */
+    private static boolean isFirstOccurrence(Set<String> seenServiceIds, ServiceInventory inventory) {
+        return inventory.getServiceId() == null || seenServiceIds.add(inventory.getServiceId().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Reads the total record count ServiceNow reports for the query, or {@code null} if the header is missing.
+     */
+    private Integer getTotalRecords(ResponseEntity<String> responseEntity) {
+        String totalCount = responseEntity.getHeaders().getFirst(snowTotalCountHeader);
+        if (totalCount == null || totalCount.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(totalCount.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring non-numeric {} header from ServiceNow: {}", snowTotalCountHeader, totalCount);
+            return null;
+        }
+    }
+
+    /**
+     * Fills the page metadata of the response for the page that was requested from ServiceNow.
+     */
+    private static void setPagination(GetInventoryResponse response, int pageNumber, int pageSize, Integer totalRecords) {
+        response.setPageNumber(pageNumber);
+        response.setPageSize(pageSize);
+        response.setResultCount(response.getInventoryList().size());
+        PaginationResponse pagination = new PaginationResponse();
+        pagination.setPageNumber(pageNumber);
+        pagination.setPageSize(pageSize);
+        pagination.setTotalRecords(totalRecords);
+        response.setPagination(List.of(pagination));
     }
 }
@@ -1,20 +1,60 @@
 package com.lumen.inventory.service.mapper;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.lumen.inventory.dto.responses.Product;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class InventoryMapper {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader PRODUCT_READER = OBJECT_MAPPER.readerFor(Product.class);
+
     /**
-     * Maps a JSON string to a List of Product objects.
+     * Reads a JSON array of products one product at a time, handing each to {@code productConsumer} as soon as it
+     * is parsed, so the full {@code List<Product>} is never materialized.
      * @param json JSON string representing a list of products
-     * @return List of Product objects
+     * @param productConsumer receives every product in payload order
+     */
+    public static void streamProducts(String json, Consumer<Product> productConsumer) throws JsonProcessingException {
+        try (JsonParser parser = PRODUCT_READER.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of products");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                productConsumer.accept(PRODUCT_READER.readValue(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON object for each product");
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the parse-time product filter for the optional serviceId (case-insensitive).
+     * @param serviceId requested service id, if any
+     * @return predicate accepting every product when no serviceId is given
      */
-    public static List<com.lumen.inventory.dto.responses.Product> mapJsonToProductList(String json) throws com.fasterxml.jackson.core.JsonProcessingException {
-        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-        com.fasterxml.jackson.core.type.TypeReference<java.util.List<com.lumen.inventory.dto.responses.Product>> typeRef = new com.fasterxml.jackson.core.type.TypeReference<java.util.List<com.lumen.inventory.dto.responses.Product>>() {};
-        return objectMapper.readValue(json, typeRef);
+    public static Predicate<Product> serviceIdFilter(Optional<String> serviceId) {
+        if (serviceId == null || serviceId.isEmpty()) {
+            return product -> true;
+        }
+        String requestedServiceId = serviceId.get();
+        return product -> product.getId() != null && product.getId().equalsIgnoreCase(requestedServiceId);
     }
 
     public static List<String> getDistinctAlternateNumbersFromSnow(List<Product> productList) {
@@ -28,4 +68,4 @@ public class InventoryMapper {
                 .collect(Collectors.toList());
                 
     }
-}
\ No newline at end of file
+}
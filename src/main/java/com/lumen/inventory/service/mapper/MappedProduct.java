@@ -0,0 +1,13 @@
+package com.lumen.inventory.service.mapper;
+
+import com.lumen.inventory.dto.responses.ServiceInventory;
+
+/**
+ * A SNOW product already mapped to its {@link ServiceInventory}, together with the customer BAN whose
+ * billing account is resolved through Account Management afterwards.
+ *
+ * @param inventory the mapped inventory item
+ * @param ban the BAN of the product's "Customer" related party, or {@code null} if it has none
+ */
+public record MappedProduct(ServiceInventory inventory, String ban) {
+}
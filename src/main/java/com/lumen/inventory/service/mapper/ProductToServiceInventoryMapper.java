@@ -1,54 +1,114 @@
 package com.lumen.inventory.service.mapper;
 
+import com.lumen.inventory.dto.responses.BillingAccountResponse;
 import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.dto.responses.ProductCharacteristic;
 import com.lumen.inventory.dto.responses.ServiceInventory;
 import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
 import org.springframework.stereotype.Component;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Maps Product to ServiceInventory, applying enrichment.
+ * <p>
+ * The characteristic whitelist ({@code validAttributeList}) is split into a hashed set once and rebuilt only when
+ * the configured value changes, e.g. after the properties were rebound on a config refresh.
+ * </p>
  */
 @Component
 public class ProductToServiceInventoryMapper {
     private final InventoryEnrichmentProperties properties;
+    private volatile AttributeWhitelist attributeWhitelist;
 
     public ProductToServiceInventoryMapper(InventoryEnrichmentProperties properties) {
         this.properties = properties;
+        this.attributeWhitelist = AttributeWhitelist.of(properties.getValidAttributeList());
     }
 
-    public ServiceInventory map(Product product, ConcurrentHashMap<String, String> banToInvoiceDisplayMap, String azureToken) {
+    public ServiceInventory map(Product product, Map<String, BillingAccountMapping> banToBillingAccountMap, String azureToken) {
+        MappedProduct mappedProduct = map(product);
+        applyBillingAccount(mappedProduct, banToBillingAccountMap);
+        return mappedProduct.inventory();
+    }
+
+    /**
+     * Maps the product without billing account details, which need the AM lookup for its BAN.
+     */
+    public MappedProduct map(Product product) {
         ServiceInventory inventory = new ServiceInventory();
         inventory.setServiceId(product.getId());
         inventory.setServiceType(properties.getProductSpecificationNameForSNow());
         inventory.setStatus(product.getStatus());
         if (product.getProductCharacteristic() != null) {
-            List<String> validAttributes = Arrays.asList(properties.getValidAttributeList().split(","));
-            var filteredCharacteristics = product.getProductCharacteristic().stream()
-                    .filter(c -> validAttributes.contains(c.getName()))
-                    .collect(Collectors.toList());
+            Set<String> validAttributes = validAttributes();
+            List<ProductCharacteristic> filteredCharacteristics = new ArrayList<>(Math.min(validAttributes.size(), product.getProductCharacteristic().size()));
+            for (ProductCharacteristic characteristic : product.getProductCharacteristic()) {
+                if (characteristic.getName() != null && validAttributes.contains(characteristic.getName())) {
+                    filteredCharacteristics.add(characteristic);
+                }
+            }
             inventory.setProductCharacteristic(filteredCharacteristics);
         }
+        String ban = null;
         if (product.getRelatedParty() != null) {
             for (var party : product.getRelatedParty()) {
                 if (party.getReferredType() != null && party.getReferredType().equalsIgnoreCase("Customer")) {
-                    String value = banToInvoiceDisplayMap.get(party.getId());
-                    if (org.springframework.util.StringUtils.hasText(value)) {
-                        String[] parts = value.split("\\|", 2);
-                        String invoiceDisplayNumber = parts.length > 0 ? parts[0] : "";
-                        String customerNumber = parts.length > 1 ? parts[1] : "";
-                        com.lumen.inventory.dto.responses.BillingAccountResponse billingAccount = new com.lumen.inventory.dto.responses.BillingAccountResponse();
-                        billingAccount.setId(invoiceDisplayNumber);
-                        inventory.setBillingAccount(billingAccount);
-                        inventory.setCustomerNumber(customerNumber);
-                    }
+                    ban = party.getId();
                     break;
                 }
             }
         }
-        return inventory;
+        return new MappedProduct(inventory, ban);
+    }
+
+    /**
+     * Sets the billing account and customer number resolved by AM for the product's BAN; a
+     * {@link BillingAccountMapping#NOT_FOUND} BAN gets an empty billing account id and customer number.
+     */
+    public void applyBillingAccount(MappedProduct mappedProduct, Map<String, BillingAccountMapping> banToBillingAccountMap) {
+        if (mappedProduct.ban() == null) {
+            return;
+        }
+        BillingAccountMapping mapping = banToBillingAccountMap.get(mappedProduct.ban());
+        if (mapping != null) {
+            BillingAccountResponse billingAccount = new BillingAccountResponse();
+            billingAccount.setId(mapping.invoiceDisplayNumber());
+            mappedProduct.inventory().setBillingAccount(billingAccount);
+            mappedProduct.inventory().setCustomerNumber(mapping.customerNumber());
+        }
+    }
+
+    /**
+     * Returns the whitelist for the current {@code validAttributeList}; a rebound value is detected by reference,
+     * so the steady state costs one comparison per product.
+     */
+    private Set<String> validAttributes() {
+        AttributeWhitelist whitelist = attributeWhitelist;
+        String validAttributeList = properties.getValidAttributeList();
+        if (whitelist.source() != validAttributeList) {
+            whitelist = AttributeWhitelist.of(validAttributeList);
+            attributeWhitelist = whitelist;
+        }
+        return whitelist.names();
+    }
+
+    /**
+     * Characteristic names of a {@code validAttributeList} value, together with that value.
+     */
+    private record AttributeWhitelist(String source, Set<String> names) {
+
+        static AttributeWhitelist of(String validAttributeList) {
+            if (validAttributeList == null) {
+                return new AttributeWhitelist(null, Set.of());
+            }
+            return new AttributeWhitelist(validAttributeList,
+                    Collections.unmodifiableSet(new HashSet<>(List.of(validAttributeList.split(",")))));
+        }
     }
 }
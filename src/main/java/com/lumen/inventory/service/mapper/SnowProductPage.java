@@ -0,0 +1,13 @@
+package com.lumen.inventory.service.mapper;
+
+import java.util.List;
+
+/**
+ * Products of one SNOW response, mapped while the payload was parsed.
+ *
+ * @param mappedProducts mapped products, in payload order
+ * @param bans distinct customer BANs of those products, to be resolved through AM
+ * @param totalProducts number of products in the payload, including those filtered out before mapping
+ */
+public record SnowProductPage(List<MappedProduct> mappedProducts, List<String> bans, int totalProducts) {
+}
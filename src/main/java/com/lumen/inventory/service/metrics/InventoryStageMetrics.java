@@ -0,0 +1,162 @@
+package com.lumen.inventory.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency timers and volume counters for the stages of the inventory pipeline.
+ * <p>
+ * Every stage is tagged with its {@code stage} name only, so the same stage of the Internet and Port flows
+ * aggregates into one series and the meters stay low-cardinality. All meters are exposed through the actuator
+ * {@code metrics} endpoint.
+ * </p>
+ * <ul>
+ *   <li>{@code inventory.stage.duration} - stage latency, with percentile histograms so p99 can be aggregated</li>
+ *   <li>{@code inventory.stage.items} - items processed by a stage (products, BANs, site ids, ...)</li>
+ *   <li>{@code inventory.stage.bytes} - payload bytes read or written by a stage</li>
+ * </ul>
+ */
+@Component
+public class InventoryStageMetrics {
+    public static final String SNOW_FETCH = "snow.fetch";
+    public static final String RESOURCE_API_FETCH = "resource-api.fetch";
+    public static final String PARSE = "parse";
+    public static final String MAPPING = "mapping";
+    public static final String AM_FANOUT = "am.fanout";
+    public static final String AM_CALL = "am.call";
+    public static final String BILLING_MERGE = "billing.merge";
+    public static final String GLM_FETCH = "glm.fetch";
+    public static final String GLM_CALL = "glm.call";
+    public static final String LOCATION_MERGE = "location.merge";
+    public static final String SERIALIZATION = "serialization";
+    public static final String STREAM_SERIALIZATION = "serialization.stream";
+
+    private static final String STAGE_DURATION = "inventory.stage.duration";
+    private static final String STAGE_ITEMS = "inventory.stage.items";
+    private static final String STAGE_BYTES = "inventory.stage.bytes";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> itemCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> byteCounters = new ConcurrentHashMap<>();
+
+    public InventoryStageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times the given stage from subscription until it terminates or is cancelled.
+     *
+     * @param stage stage name
+     * @param source the stage
+     * @return the stage, timed
+     */
+    public <T> Mono<T> time(String stage, Mono<T> source) {
+        Timer timer = timer(stage);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Runs and times a synchronous stage.
+     *
+     * @param stage stage name
+     * @param step the stage
+     * @return the stage's result
+     */
+    public <T> T time(String stage, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs and times a synchronous stage without result.
+     *
+     * @param stage stage name
+     * @param step the stage
+     */
+    public void time(String stage, Runnable step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a stage duration measured by the caller, e.g. for stages interleaved with others.
+     *
+     * @param stage stage name
+     * @param nanos duration in nanoseconds
+     */
+    public void record(String stage, long nanos) {
+        timer(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts the items processed by a stage.
+     *
+     * @param stage stage name
+     * @param items number of items
+     */
+    public void countItems(String stage, long items) {
+        if (items > 0) {
+            itemCounters.computeIfAbsent(stage, name -> Counter.builder(STAGE_ITEMS)
+                    .description("Items processed by an inventory pipeline stage")
+                    .tag("stage", name)
+                    .register(meterRegistry)).increment(items);
+        }
+    }
+
+    /**
+     * Counts the payload bytes read or written by a stage.
+     *
+     * @param stage stage name
+     * @param bytes number of bytes
+     */
+    public void countBytes(String stage, long bytes) {
+        if (bytes > 0) {
+            byteCounters.computeIfAbsent(stage, name -> Counter.builder(STAGE_BYTES)
+                    .description("Payload bytes read or written by an inventory pipeline stage")
+                    .baseUnit("bytes")
+                    .tag("stage", name)
+                    .register(meterRegistry)).increment(bytes);
+        }
+    }
+
+    /**
+     * Counts the bytes of an upstream response body: its {@code Content-Length} when present, otherwise the
+     * length of the (JSON, hence mostly ASCII) body.
+     *
+     * @param stage stage name
+     * @param response upstream response
+     */
+    public void countPayload(String stage, ResponseEntity<String> response) {
+        long contentLength = response.getHeaders().getContentLength();
+        countBytes(stage, contentLength >= 0 ? contentLength : (response.getBody() != null ? response.getBody().length() : 0));
+    }
+
+    private Timer timer(String stage) {
+        return timers.computeIfAbsent(stage, name -> Timer.builder(STAGE_DURATION)
+                .description("Latency of an inventory pipeline stage")
+                .tag("stage", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
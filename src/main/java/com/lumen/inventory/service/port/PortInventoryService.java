@@ -1,34 +1,216 @@
 package com.lumen.inventory.service.port;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lumen.error.enums.ErrorCode;
+import com.lumen.error.exception.ProcessingException;
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
 import com.lumen.inventory.dto.InventoryQueryParams;
 import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.PaginationResponse;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.exception.NoInventoryFoundException;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.integration.resilience.UpstreamUnavailableException;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.deadline.RequestDeadlineExceededException;
+import com.lumen.inventory.service.enrichement.InventoryEnrichmentService;
+import com.lumen.inventory.service.enrichement.LocationEnrichmentService;
+import com.lumen.inventory.service.mapper.InventoryMapper;
+import com.lumen.inventory.service.mapper.MappedProduct;
+import com.lumen.inventory.service.mapper.SnowProductPage;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import com.lumen.resourceapi.service.InventoryPortService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for handling Port-specific inventory queries.
  * <p>
- * This class is a placeholder for future Port inventory logic, following the Single Responsibility Principle (SRP).
+ * Port inventory comes from the Resource API, through the {@link InventoryPortService} bean of resourceapi-cache-lib
+ * wired in {@code ResourceApiConfig}. It is enriched the same way as the Internet inventory, following the Single
+ * Responsibility Principle (SRP):
  * </p>
  *
+ * <ul>
+ *   <li>Fetches the ports of every requested customer from the Resource API, several customers at a time
+ *       (at most {@code naas.inventory.max-concurrent-port-customers} in flight), through the
+ *       {@code resource-api} bulkhead, timeout and circuit breaker of {@link UpstreamGuard}</li>
+ *   <li>Streams each payload into ServiceInventory objects, skipping ports that do not match the requested serviceId</li>
+ *   <li>Pages the ports of all customers as one list, and resolves the BANs of the requested page through Account
+ *       Management (AM) and its sites through GLM, concurrently; ports outside the page are never enriched</li>
+ * </ul>
+ *
  * @author API Development Team
  * @since 2.0.0
  */
+@Slf4j
 @Service
 public class PortInventoryService {
 
+    @Autowired
+    private InventoryPortService inventoryPortService;
+
+    @Autowired
+    private InventoryEnrichmentService inventoryEnrichmentService;
+
+    @Autowired
+    private LocationEnrichmentService locationEnrichmentService;
+
+    @Autowired
+    private InventoryEnrichmentProperties inventoryEnrichmentProperties;
+
+    @Autowired
+    private InventoryStageMetrics inventoryStageMetrics;
+
+    @Autowired
+    private UpstreamGuard upstreamGuard;
+
     /**
-     * Retrieves Port inventory for the given query parameters.
+     * Retrieves one page of Port inventory for the given query parameters without holding a thread.
      * <p>
-     * This method will be implemented to fetch and enrich Port inventory data.
+     * The Resource API answers with all ports of a customer, so the ports of all customers are fetched in parallel
+     * and paged here, in customer order. Only the requested page is enriched; AM and GLM run side by side. A page
+     * number past the last page yields an empty inventory list with the total in the pagination; customers without
+     * any port are reported as {@link NoInventoryFoundException}. A payload that cannot be parsed yields 500 with an
+     * empty body, as for the Internet flow.
      * </p>
      *
-     * @param queryParams Query parameters (customerNumbers, serviceType, serviceId)
-     * @return ResponseEntity containing the inventory response (currently NOT_IMPLEMENTED)
+     * @param queryParams Query parameters (customerNumbers, serviceId, pageNumber, pageSize)
+     * @return Mono emitting the enriched inventory response, or a {@link NoInventoryFoundException} error
+     */
+    public Mono<ResponseEntity<GetInventoryResponse>> getInventoryPortListAsync(InventoryQueryParams queryParams) {
+        log.info("Processing Port inventory request");
+        String customers = String.join(",", queryParams.customerNumbers());
+        int pageNumber = queryParams.resolvedPageNumber();
+        int pageSize = queryParams.resolvedPageSize();
+        return fetchPorts(queryParams)
+                .flatMap(ports -> {
+                    if (ports.isEmpty()) {
+                        return Mono.error(new NoInventoryFoundException("No Port inventory records found for customers: " + customers));
+                    }
+                    int from = (int) Math.min(ports.size(), (long) (pageNumber - 1) * pageSize);
+                    List<MappedProduct> page = ports.subList(from, Math.min(ports.size(), from + pageSize));
+                    return enrich(page).map(inventoryList -> {
+                        GetInventoryResponse getInventoryResponse = new GetInventoryResponse();
+                        getInventoryResponse.setInventoryList(inventoryList);
+                        setPagination(getInventoryResponse, pageNumber, pageSize, ports.size());
+                        return new ResponseEntity<>(getInventoryResponse, HttpStatus.OK);
+                    });
+                })
+                .onErrorResume(JsonProcessingException.class, e -> {
+                    log.error("Error occurred while retrieving Port service information", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new GetInventoryResponse()));
+                });
+    }
+
+    /**
+     * Streams the Port inventory of all customers, one enriched item at a time.
+     * <p>
+     * The ports are enriched in slices of the requested page size (default: {@link InventoryQueryParams#MAX_PAGE_SIZE}),
+     * one slice after the other, so a slice's items are emitted while the next one is being enriched.
+     * </p>
+     *
+     * @param queryParams Query parameters (customerNumbers, serviceId, pageSize)
+     * @return Flux emitting every enriched inventory item
+     */
+    public Flux<ServiceInventory> streamInventoryPortList(InventoryQueryParams queryParams) {
+        log.info("Processing Port inventory export");
+        int pageSize = Math.max(1, queryParams.pageSize().orElse(InventoryQueryParams.MAX_PAGE_SIZE));
+        return fetchPorts(queryParams)
+                .flatMapMany(ports -> {
+                    List<List<MappedProduct>> slices = new ArrayList<>();
+                    for (int from = 0; from < ports.size(); from += pageSize) {
+                        slices.add(ports.subList(from, Math.min(ports.size(), from + pageSize)));
+                    }
+                    return Flux.fromIterable(slices).concatMap(this::enrich, 1);
+                })
+                .concatMapIterable(inventoryList -> inventoryList);
+    }
+
+    /**
+     * Fetches and maps the ports of all requested customers, without enriching them.
+     *
+     * @param queryParams Query parameters (customerNumbers, serviceId)
+     * @return Mono emitting the mapped ports, in customer order
+     */
+    private Mono<List<MappedProduct>> fetchPorts(InventoryQueryParams queryParams) {
+        Predicate<Product> serviceIdFilter = InventoryMapper.serviceIdFilter(queryParams.serviceId());
+        int concurrency = Math.max(1, inventoryEnrichmentProperties.getMaxConcurrentPortCustomers());
+        return Flux.fromIterable(queryParams.customerNumbers())
+                .flatMapSequential(customerNumber -> fetchCustomerPorts(customerNumber, serviceIdFilter), concurrency)
+                .concatMapIterable(SnowProductPage::mappedProducts)
+                .doOnNext(port -> port.inventory().setServiceType(InventoryQueryParams.SERVICE_TYPE_PORT))
+                .collectList();
+    }
+
+    /**
+     * Looks up AM billing accounts and GLM locations concurrently for the given ports and merges both into their
+     * inventory once they returned.
+     */
+    private Mono<List<ServiceInventory>> enrich(List<MappedProduct> ports) {
+        List<ServiceInventory> serviceInventoryList = ports.stream().map(MappedProduct::inventory).collect(Collectors.toList());
+        if (ports.isEmpty()) {
+            return Mono.just(serviceInventoryList);
+        }
+        List<String> bans = ports.stream().map(MappedProduct::ban).filter(ban -> ban != null && !ban.isBlank()).distinct().toList();
+        return Mono.zip(
+                        inventoryEnrichmentService.fillBanHashMapByCallingAMServiceAsync(bans),
+                        locationEnrichmentService.fetchSiteLocations(serviceInventoryList))
+                .map(amAndGlm -> {
+                    inventoryEnrichmentService.applyBillingAccounts(ports, amAndGlm.getT1());
+                    locationEnrichmentService.applyLocations(serviceInventoryList, amAndGlm.getT2());
+                    return serviceInventoryList;
+                });
+    }
+
+    /**
+     * Calls the Resource API for one customer and maps its ports. A missing body means the customer has no ports.
+     * A call refused or abandoned by the Resource API guard, or cut short by the request deadline, fails the request
+     * with SERVICE_UNAVAILABLE.
+     */
+    private Mono<SnowProductPage> fetchCustomerPorts(String customerNumber, Predicate<Product> serviceIdFilter) {
+        return inventoryStageMetrics.time(InventoryStageMetrics.RESOURCE_API_FETCH, RequestDeadline.limit(InventoryStageMetrics.RESOURCE_API_FETCH,
+                        upstreamGuard.guard(UpstreamGuard.RESOURCE_API, inventoryPortService.getInventoryPortInformation(customerNumber))))
+                .onErrorMap(e -> e instanceof UpstreamUnavailableException || e instanceof RequestDeadlineExceededException,
+                        e -> new ProcessingException(ErrorCode.SERVICE_UNAVAILABLE, e.getMessage()))
+                .filter(responseEntity -> responseEntity.getBody() != null)
+                .doOnNext(responseEntity -> inventoryStageMetrics.countPayload(InventoryStageMetrics.RESOURCE_API_FETCH, responseEntity))
+                .publishOn(Schedulers.parallel())
+                .flatMap(responseEntity -> {
+                    try {
+                        return Mono.just(inventoryEnrichmentService.mapSnowProducts(responseEntity.getBody(), serviceIdFilter));
+                    } catch (JsonProcessingException e) {
+                        return Mono.error(e);
+                    }
+                })
+                .defaultIfEmpty(new SnowProductPage(List.of(), List.of(), 0));
+    }
+
+    /**
+     * Fills the page metadata of the response for the requested page of all customers' ports.
      */
-    public ResponseEntity<GetInventoryResponse> getInventoryPortList(InventoryQueryParams queryParams) {
-        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
-                .body(new GetInventoryResponse());
+    private static void setPagination(GetInventoryResponse response, int pageNumber, int pageSize, int totalRecords) {
+        response.setPageNumber(pageNumber);
+        response.setPageSize(pageSize);
+        response.setResultCount(response.getInventoryList().size());
+        PaginationResponse pagination = new PaginationResponse();
+        pagination.setPageNumber(pageNumber);
+        pagination.setPageSize(pageSize);
+        pagination.setTotalRecords(totalRecords);
+        response.setPagination(List.of(pagination));
     }
 }
@@ -0,0 +1,64 @@
+package com.lumen.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SerializationMetricsConfigTests {
+
+	private SimpleMeterRegistry meterRegistry;
+	private MappingJackson2HttpMessageConverter converter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+		new SerializationMetricsConfig(new InventoryStageMetrics(meterRegistry)).extendMessageConverters(converters);
+		converter = (MappingJackson2HttpMessageConverter) converters.get(0);
+	}
+
+	@Test
+	void jsonResponseIsOneSerializationSample() throws IOException {
+		GetInventoryResponse response = new GetInventoryResponse();
+		response.setInventoryList(List.of(new ServiceInventory(), new ServiceInventory()));
+
+		converter.write(response, MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+
+		assertThat(samples(InventoryStageMetrics.SERIALIZATION)).isEqualTo(1);
+		assertThat(items(InventoryStageMetrics.SERIALIZATION)).isEqualTo(2);
+	}
+
+	@Test
+	void ndjsonItemsAreKeptOutOfTheSerializationStage() throws IOException {
+		for (int i = 0; i < 3; i++) {
+			converter.write(new ServiceInventory(), MediaType.APPLICATION_NDJSON, new MockHttpOutputMessage());
+		}
+
+		assertThat(meterRegistry.find("inventory.stage.duration").tag("stage", InventoryStageMetrics.SERIALIZATION).timer()).isNull();
+		assertThat(samples(InventoryStageMetrics.STREAM_SERIALIZATION)).isEqualTo(3);
+		assertThat(items(InventoryStageMetrics.STREAM_SERIALIZATION)).isEqualTo(3);
+	}
+
+	private long samples(String stage) {
+		return meterRegistry.get("inventory.stage.duration").tag("stage", stage).timer().count();
+	}
+
+	private double items(String stage) {
+		return meterRegistry.get("inventory.stage.items").tag("stage", stage).counter().count();
+	}
+}
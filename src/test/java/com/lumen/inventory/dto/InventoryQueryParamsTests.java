@@ -0,0 +1,37 @@
+package com.lumen.inventory.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class InventoryQueryParamsTests {
+
+	@Test
+	void missingOrAllServiceTypeSelectsEveryType() {
+		assertThat(params(Optional.empty()).serviceTypes()).containsExactly("Internet", "Port");
+		assertThat(params(Optional.of("all")).serviceTypes()).containsExactly("Internet", "Port");
+	}
+
+	@Test
+	void serviceTypeListIsCanonicalized() {
+		InventoryQueryParams params = params(Optional.of(" port ,INTERNET,Port"));
+
+		assertThat(params.serviceTypes()).containsExactly("Internet", "Port");
+		assertThat(params.normalized()).isEqualTo(params(Optional.of("All")).normalized());
+	}
+
+	@Test
+	void unknownServiceTypeIsRejected() {
+		assertThatThrownBy(() -> params(Optional.of("Internet,Voice")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Voice");
+	}
+
+	private static InventoryQueryParams params(Optional<String> serviceType) {
+		return new InventoryQueryParams(List.of("15182"), serviceType, Optional.empty());
+	}
+}
@@ -0,0 +1,191 @@
+package com.lumen.inventory.integration.account;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.BanMappingCacheProperties;
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.service.enrichement.EnrichmentExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BanMappingCacheTests {
+
+	private AccountManagementAdapter adapter;
+	private SimpleMeterRegistry meterRegistry;
+	private BanMappingCache cache;
+
+	@BeforeEach
+	void setUp() {
+		adapter = mock(AccountManagementAdapter.class);
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new BanMappingCache(adapter, new BanMappingCacheProperties(),
+				new EnrichmentExecutor(new InventoryEnrichmentProperties(), meterRegistry), meterRegistry);
+	}
+
+	@Test
+	void repeatedLookupsCallAccountManagementOnce() {
+		BillingAccountMapping mapping = new BillingAccountMapping("INV1", "CUST1");
+		when(adapter.getBanMapping("BAN1", null)).thenReturn(mapping);
+
+		assertThat(cache.getBanMapping("BAN1")).isSameAs(mapping);
+		assertThat(cache.getBanMapping("BAN1")).isSameAs(mapping);
+
+		verify(adapter, times(1)).getBanMapping("BAN1", null);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "am.ban.mapping").tag("result", "hit")
+				.functionCounter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void notFoundResultsAreCachedToo() {
+		when(adapter.getBanMapping("BAN2", null)).thenReturn(BillingAccountMapping.NOT_FOUND);
+
+		cache.getBanMapping("BAN2");
+		assertThat(cache.getBanMapping("BAN2").isNotFound()).isTrue();
+
+		verify(adapter, times(1)).getBanMapping("BAN2", null);
+	}
+
+	@Test
+	void cachedLookupNeverCallsAccountManagement() {
+		BillingAccountMapping cached = new BillingAccountMapping("INV1", "CUST1");
+		when(adapter.getBanMapping("BAN1", null)).thenReturn(cached);
+		cache.getBanMapping("BAN1");
+
+		assertThat(cache.getCachedBanMappings(List.of("BAN1", "BAN2"))).containsOnlyKeys("BAN1").containsEntry("BAN1", cached);
+
+		verify(adapter, times(1)).getBanMapping("BAN1", null);
+		verify(adapter, never()).getBanMapping("BAN2", null);
+	}
+
+	@Test
+	void missesLoadConcurrentlyBeyondTheNumberOfCarrierThreads() throws Exception {
+		int lookups = Runtime.getRuntime().availableProcessors() * 2 + 2;
+		InventoryEnrichmentProperties properties = new InventoryEnrichmentProperties();
+		properties.setMaxConcurrentAmCalls(lookups);
+		EnrichmentExecutor enrichmentExecutor = new EnrichmentExecutor(properties, meterRegistry);
+		CountDownLatch allInFlight = new CountDownLatch(lookups);
+		CountDownLatch release = new CountDownLatch(1);
+		when(adapter.getBanMapping(anyString(), any())).thenAnswer(invocation -> {
+			allInFlight.countDown();
+			release.await();
+			return BillingAccountMapping.NOT_FOUND;
+		});
+		try {
+			List<CompletableFuture<BillingAccountMapping>> loads = new ArrayList<>();
+			for (int i = 0; i < lookups; i++) {
+				String ban = "BAN" + i;
+				loads.add(enrichmentExecutor.submit(() -> cache.getBanMapping(ban, null)));
+			}
+
+			// a load pinning its carrier would stall this at the number of carriers
+			assertThat(allInFlight.await(5, TimeUnit.SECONDS)).isTrue();
+			release.countDown();
+			CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			enrichmentExecutor.close();
+		}
+	}
+
+	@Test
+	void concurrentLookupsOfOneBanShareOneCall() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BillingAccountMapping mapping = new BillingAccountMapping("INV1", "CUST1");
+		when(adapter.getBanMapping("BAN1", null)).thenAnswer(invocation -> {
+			release.await();
+			return mapping;
+		});
+
+		CompletableFuture<BillingAccountMapping> first = CompletableFuture.supplyAsync(() -> cache.getBanMapping("BAN1"));
+		CompletableFuture<BillingAccountMapping> second = CompletableFuture.supplyAsync(() -> cache.getBanMapping("BAN1"));
+		Thread.sleep(50);
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(mapping);
+		assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(mapping);
+		verify(adapter, times(1)).getBanMapping("BAN1", null);
+	}
+
+	@Test
+	void failedLoadIsNotCached() {
+		BillingAccountMapping mapping = new BillingAccountMapping("INV1", "CUST1");
+		when(adapter.getBanMapping("BAN1", null)).thenThrow(new IllegalStateException("AM down")).thenReturn(mapping);
+
+		assertThatThrownBy(() -> cache.getBanMapping("BAN1")).isInstanceOf(IllegalStateException.class).hasMessage("AM down");
+		assertThat(cache.getBanMapping("BAN1")).isSameAs(mapping);
+	}
+
+	@Test
+	void missingBansAreLoadedInOneBatch() {
+		BillingAccountMapping cached = new BillingAccountMapping("INV1", "CUST1");
+		when(adapter.getBanMapping("BAN1", null)).thenReturn(cached);
+		cache.getBanMapping("BAN1");
+		when(adapter.getBanMappings(anyCollection(), any())).thenAnswer(invocation -> {
+			Map<String, CompletableFuture<BillingAccountMapping>> loads = new LinkedHashMap<>();
+			for (String ban : invocation.<Collection<String>>getArgument(0)) {
+				loads.put(ban, CompletableFuture.completedFuture(new BillingAccountMapping("INV-" + ban, "CUST1")));
+			}
+			return loads;
+		});
+
+		Map<String, CompletableFuture<BillingAccountMapping>> mappings = cache.getBanMappings(List.of("BAN1", "BAN2", "BAN3"), null);
+
+		assertThat(mappings.get("BAN1").join()).isSameAs(cached);
+		assertThat(mappings.get("BAN3").join().invoiceDisplayNumber()).isEqualTo("INV-BAN3");
+		verify(adapter, times(1)).getBanMappings(argThat(bans -> bans.size() == 2 && bans.containsAll(List.of("BAN2", "BAN3"))), any());
+		assertThat(cache.getCachedBanMappings(List.of("BAN1", "BAN2", "BAN3"))).hasSize(3);
+	}
+
+	@Test
+	void failedBatchLoadIsNotCached() {
+		when(adapter.getBanMappings(anyCollection(), any()))
+				.thenReturn(Map.of("BAN1", CompletableFuture.failedFuture(new IllegalStateException("AM down"))));
+
+		assertThat(cache.getBanMappings(List.of("BAN1"), null).get("BAN1")).isCompletedExceptionally();
+		assertThat(cache.getCachedBanMappings(List.of("BAN1"))).isEmpty();
+		cache.getBanMappings(List.of("BAN1"), null);
+		verify(adapter, times(2)).getBanMappings(anyCollection(), any());
+	}
+
+	@Test
+	void refreshesRunOnTheEnrichmentExecutor() throws InterruptedException {
+		BillingAccountMapping stale = new BillingAccountMapping("INV1", "CUST1");
+		BillingAccountMapping fresh = new BillingAccountMapping("INV2", "CUST1");
+		BanMappingCacheProperties properties = new BanMappingCacheProperties();
+		properties.setRefreshAfter(Duration.ofMillis(1));
+		EnrichmentExecutor enrichmentExecutor = mock(EnrichmentExecutor.class);
+		when(enrichmentExecutor.submit(any())).thenReturn(CompletableFuture.completedFuture(fresh));
+		when(adapter.getBanMapping("BAN1", null)).thenReturn(stale);
+		BanMappingCache refreshingCache = new BanMappingCache(adapter, properties, enrichmentExecutor, meterRegistry);
+
+		refreshingCache.getBanMapping("BAN1");
+		Thread.sleep(5);
+		refreshingCache.getBanMapping("BAN1");
+
+		verify(enrichmentExecutor, times(1)).submit(any());
+		assertThat(refreshingCache.getBanMapping("BAN1")).isSameAs(fresh);
+	}
+}
@@ -0,0 +1,126 @@
+package com.lumen.inventory.integration.location;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.glm.dto.ServiceLocation;
+import com.lumen.glm.service.GLMRestClient;
+import com.lumen.inventory.config.SiteLocationCacheProperties;
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+import com.lumen.inventory.integration.resilience.RequestHedger;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class SiteLocationCacheTests {
+
+	private GLMRestClient glmRestClient;
+	private SimpleMeterRegistry meterRegistry;
+	private UpstreamGuard upstreamGuard;
+	private RequestHedger requestHedger;
+	private SiteLocationCache cache;
+
+	@BeforeEach
+	void setUp() {
+		glmRestClient = mock(GLMRestClient.class);
+		meterRegistry = new SimpleMeterRegistry();
+		UpstreamResilienceProperties resilienceProperties = new UpstreamResilienceProperties();
+		upstreamGuard = new UpstreamGuard(resilienceProperties, meterRegistry);
+		requestHedger = new RequestHedger(resilienceProperties, meterRegistry);
+		cache = new SiteLocationCache(glmRestClient, new SiteLocationCacheProperties(), meterRegistry,
+				new InventoryStageMetrics(meterRegistry), upstreamGuard, requestHedger);
+	}
+
+	@AfterEach
+	void tearDown() {
+		requestHedger.close();
+		upstreamGuard.close();
+	}
+
+	@Test
+	void onlyMissingIdsGoToGlmInOneBatch() {
+		List<List<String>> batches = glmKnows("SITE1", "SITE2", "SITE3");
+		cache.getLocations(List.of("SITE1")).block(Duration.ofSeconds(5));
+
+		List<ServiceLocation> locations = cache.getLocations(List.of("site1", "SITE2", "SITE3", "SITE2"))
+				.block(Duration.ofSeconds(5));
+
+		assertThat(locations).extracting(ServiceLocation::getMasterSiteId).containsExactlyInAnyOrder("SITE1", "SITE2", "SITE3");
+		assertThat(batches).hasSize(2);
+		assertThat(batches.get(0)).containsExactly("SITE1");
+		assertThat(batches.get(1)).containsExactlyInAnyOrder("SITE2", "SITE3");
+		assertThat(meterRegistry.get("inventory.glm.batch.size").summary().totalAmount()).isEqualTo(3.0);
+	}
+
+	@Test
+	void idsUnknownToGlmAreNotCached() {
+		List<List<String>> batches = glmKnows("SITE1");
+
+		assertThat(cache.getLocations(List.of("SITE1", "SITE9")).block(Duration.ofSeconds(5)))
+				.extracting(ServiceLocation::getMasterSiteId).containsExactly("SITE1");
+		assertThat(cache.getLocations(List.of("SITE1", "SITE9")).block(Duration.ofSeconds(5)))
+				.extracting(ServiceLocation::getMasterSiteId).containsExactly("SITE1");
+
+		assertThat(batches).hasSize(2);
+		assertThat(batches.get(1)).containsExactly("SITE9");
+	}
+
+	@Test
+	void failedGlmCallCachesNothing() {
+		when(glmRestClient.getLocationInformationForList(List.of("SITE1")))
+				.thenReturn(Mono.error(new IllegalStateException("GLM down")))
+				.thenReturn(Mono.just(List.of(location("SITE1"))));
+
+		assertThatThrownBy(() -> cache.getLocations(List.of("SITE1")).block(Duration.ofSeconds(5)))
+				.hasMessageContaining("GLM down");
+		assertThat(cache.getLocations(List.of("SITE1")).block(Duration.ofSeconds(5)))
+				.extracting(ServiceLocation::getMasterSiteId).containsExactly("SITE1");
+	}
+
+	@Test
+	void glmCallRunsWithTheRequestContext() {
+		RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(5));
+		AtomicReference<Optional<RequestDeadline>> seenDeadline = new AtomicReference<>();
+		when(glmRestClient.getLocationInformationForList(List.of("SITE1"))).thenReturn(Mono.deferContextual(context -> {
+			seenDeadline.set(RequestDeadline.current(context));
+			return Mono.just(List.of(location("SITE1")));
+		}));
+
+		cache.getLocations(List.of("SITE1")).contextWrite(deadline.asContext()).block(Duration.ofSeconds(5));
+
+		assertThat(seenDeadline.get()).contains(deadline);
+	}
+
+	private List<List<String>> glmKnows(String... masterSiteIds) {
+		List<String> known = List.of(masterSiteIds);
+		List<List<String>> batches = new CopyOnWriteArrayList<>();
+		when(glmRestClient.getLocationInformationForList(anyList())).thenAnswer(invocation -> {
+			List<String> batch = invocation.getArgument(0);
+			batches.add(List.copyOf(batch));
+			return Mono.just(batch.stream().filter(known::contains).map(SiteLocationCacheTests::location).toList());
+		});
+		return batches;
+	}
+
+	private static ServiceLocation location(String masterSiteId) {
+		ServiceLocation location = new ServiceLocation();
+		location.setMasterSiteId(masterSiteId);
+		return location;
+	}
+}
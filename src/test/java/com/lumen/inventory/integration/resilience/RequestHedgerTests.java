@@ -0,0 +1,196 @@
+package com.lumen.inventory.integration.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RequestHedgerTests {
+
+	private SimpleMeterRegistry meterRegistry;
+	private RequestHedger hedger;
+
+	@BeforeEach
+	void setUp() {
+		hedger = hedger(100);
+	}
+
+	private RequestHedger hedger(int budgetPercent) {
+		return hedger(budgetPercent, Duration.ofMillis(50));
+	}
+
+	private RequestHedger hedger(int budgetPercent, Duration initialDelay) {
+		UpstreamResilienceProperties properties = new UpstreamResilienceProperties();
+		for (UpstreamResilienceProperties.Upstream upstream : new UpstreamResilienceProperties.Upstream[] { properties.getAm(), properties.getGlm() }) {
+			upstream.getHedge().setEnabled(true);
+			upstream.getHedge().setInitialDelay(initialDelay);
+			upstream.getHedge().setBudgetPercent(budgetPercent);
+		}
+		meterRegistry = new SimpleMeterRegistry();
+		return new RequestHedger(properties, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		hedger.close();
+	}
+
+	@Test
+	void slowCallIsHedgedAndFirstAnswerWins() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = hedger.hedge(UpstreamGuard.AM, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				sleep(Duration.ofSeconds(5));
+				return "slow";
+			}
+			return "hedge";
+		});
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(hedges("fired")).isEqualTo(1);
+		assertThat(hedges("won")).isEqualTo(1);
+	}
+
+	@Test
+	void losingBlockingAttemptIsInterrupted() throws InterruptedException {
+		AtomicInteger attempts = new AtomicInteger();
+		CountDownLatch loserInterrupted = new CountDownLatch(1);
+
+		String result = hedger.hedge(UpstreamGuard.AM, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				try {
+					Thread.sleep(Duration.ofSeconds(5));
+				} catch (InterruptedException e) {
+					loserInterrupted.countDown();
+				}
+				return "slow";
+			}
+			return "hedge";
+		});
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(loserInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(meterRegistry.get("inventory.hedge.primary.latency").tag("upstream", UpstreamGuard.AM).timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void fastCallIsNotHedged() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThat(hedger.hedge(UpstreamGuard.AM, attempts::incrementAndGet)).isEqualTo(1);
+		assertThat(attempts).hasValue(1);
+		assertThat(hedges("fired")).isZero();
+	}
+
+	@Test
+	void failureBeforeHedgeDelayPropagates() {
+		assertThatThrownBy(() -> hedger.hedge(UpstreamGuard.AM, () -> {
+			throw new IllegalStateException("AM down");
+		})).isInstanceOf(IllegalStateException.class).hasMessage("AM down");
+		assertThat(hedges("fired")).isZero();
+	}
+
+	@Test
+	void exhaustedBudgetDeniesHedge() {
+		hedger.close();
+		// half a hedge per call: the first slow call finds the budget short, the second one may hedge
+		hedger = hedger(50);
+
+		assertThat(hedger.hedge(UpstreamGuard.AM, () -> {
+			sleep(Duration.ofMillis(150));
+			return "first";
+		})).isEqualTo("first");
+		hedger.hedge(UpstreamGuard.AM, () -> {
+			sleep(Duration.ofMillis(150));
+			return "second";
+		});
+
+		assertThat(hedges("denied")).isEqualTo(1);
+		assertThat(hedges("fired")).isEqualTo(1);
+	}
+
+	@Test
+	void unusedBudgetSavesUpAtMostMaxBurstHedges() {
+		hedger.close();
+		hedger = hedger(50);
+		// three quiet calls would earn one and a half hedges, but only max-burst (one) is saved up
+		for (int i = 0; i < 3; i++) {
+			hedger.hedge(UpstreamGuard.AM, () -> "fast");
+		}
+
+		for (int i = 0; i < 2; i++) {
+			hedger.hedge(UpstreamGuard.AM, () -> {
+				sleep(Duration.ofMillis(150));
+				return "slow";
+			});
+		}
+
+		assertThat(hedges("fired")).isEqualTo(1);
+		assertThat(hedges("denied")).isEqualTo(1);
+	}
+
+	@Test
+	void reactiveSlowCallIsHedgedAndLoserCancelled() {
+		AtomicInteger attempts = new AtomicInteger();
+		AtomicInteger cancelled = new AtomicInteger();
+
+		String result = hedger.hedgeMono(UpstreamGuard.GLM, () -> attempts.incrementAndGet() == 1
+				? Mono.<String>never().doOnCancel(cancelled::incrementAndGet)
+				: Mono.just("hedge")).block(Duration.ofSeconds(5));
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(cancelled).hasValue(1);
+		assertThat(hedges("won")).isEqualTo(1);
+		// the cancelled first attempt still counts, with the time it had taken, towards the hedge delay
+		assertThat(meterRegistry.get("inventory.hedge.primary.latency").tag("upstream", UpstreamGuard.GLM).timer()
+				.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+	}
+
+	@Test
+	void reactiveFailureBeforeHedgeDelayPropagates() {
+		assertThatThrownBy(() -> hedger.hedgeMono(UpstreamGuard.GLM, () -> Mono.<String>error(new IllegalStateException("GLM down")))
+				.block(Duration.ofSeconds(5))).isInstanceOf(IllegalStateException.class).hasMessage("GLM down");
+		assertThat(hedges("fired")).isZero();
+	}
+
+	@Test
+	void reactiveFailureIsReportedWithoutWaitingForTheHedgeDelay() {
+		hedger.close();
+		hedger = hedger(100, Duration.ofSeconds(2));
+		long start = System.nanoTime();
+
+		assertThatThrownBy(() -> hedger.hedgeMono(UpstreamGuard.GLM,
+				() -> Mono.<String>error(new IllegalStateException("GLM down")).delaySubscription(Duration.ofMillis(20)))
+				.block(Duration.ofSeconds(5))).isInstanceOf(IllegalStateException.class).hasMessage("GLM down");
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+		assertThat(hedges("fired")).isZero();
+	}
+
+	private double hedges(String outcome) {
+		return meterRegistry.get("inventory.hedge.requests").tag("outcome", outcome).counters().stream()
+				.mapToDouble(Counter::count).sum();
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
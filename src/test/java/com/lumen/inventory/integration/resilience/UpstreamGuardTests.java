@@ -0,0 +1,165 @@
+package com.lumen.inventory.integration.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class UpstreamGuardTests {
+
+	private UpstreamGuard guard;
+
+	@BeforeEach
+	void setUp() {
+		UpstreamResilienceProperties properties = new UpstreamResilienceProperties();
+		properties.getAm().setTimeout(Duration.ofMillis(100));
+		properties.getAm().setSlidingWindowSize(4);
+		properties.getAm().setMinimumNumberOfCalls(4);
+		properties.getGlm().setTimeout(Duration.ofMillis(100));
+		properties.getSnow().setMaxConcurrentCalls(1);
+		properties.getSnow().setMaxWait(Duration.ofMillis(300));
+		guard = new UpstreamGuard(properties, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		guard.close();
+	}
+
+	@Test
+	void blockingCallIsAbandonedAfterTimeout() {
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.AM, () -> {
+			sleep(Duration.ofSeconds(5));
+			return "late";
+		})).isInstanceOf(UpstreamUnavailableException.class).hasMessageContaining("timed out");
+	}
+
+	@Test
+	void blockingCallRunsOnTheCallersThread() {
+		assertThat(guard.guard(UpstreamGuard.AM, () -> Thread.currentThread())).isSameAs(Thread.currentThread());
+	}
+
+	@Test
+	void blockingCallIsCutAtTheRequestDeadlineWithoutOpeningTheCircuit() {
+		for (int i = 0; i < 4; i++) {
+			long start = System.nanoTime();
+			assertThatThrownBy(() -> guard.guard(UpstreamGuard.AM, RequestDeadline.after(Duration.ofMillis(20)), () -> {
+				sleep(Duration.ofSeconds(5));
+				return "late";
+			})).isInstanceOf(UpstreamUnavailableException.class).hasMessageContaining("timed out");
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+			assertThat(Thread.currentThread().isInterrupted()).isFalse();
+		}
+
+		assertThat(guard.guard(UpstreamGuard.AM, RequestDeadline.after(Duration.ofSeconds(1)), () -> "answered")).isEqualTo("answered");
+	}
+
+	@Test
+	void expiredDeadlineSkipsTheCall() {
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.AM, RequestDeadline.after(Duration.ZERO), calls::incrementAndGet))
+				.isInstanceOf(UpstreamUnavailableException.class);
+		assertThat(calls).hasValue(0);
+	}
+
+	@Test
+	void callFailuresPropagateUnchanged() {
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.AM, () -> {
+			throw new IllegalArgumentException("bad BAN");
+		})).isInstanceOf(IllegalArgumentException.class).hasMessage("bad BAN");
+	}
+
+	@Test
+	void openCircuitRejectsWithoutCallingUpstream() {
+		AtomicInteger calls = new AtomicInteger();
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> guard.guard(UpstreamGuard.AM, () -> {
+				calls.incrementAndGet();
+				throw new IllegalStateException("AM down");
+			})).isInstanceOf(IllegalStateException.class);
+		}
+
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.AM, calls::incrementAndGet))
+				.isInstanceOf(UpstreamUnavailableException.class).hasMessageContaining("circuit open");
+		assertThat(calls).hasValue(4);
+	}
+
+	@Test
+	void reactiveCallTimesOut() {
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.GLM, Mono.never()).block(Duration.ofSeconds(5)))
+				.isInstanceOf(UpstreamUnavailableException.class).hasMessageContaining("timed out");
+	}
+
+	@Test
+	void reactiveCallIsCutAtTheRequestDeadline() {
+		long start = System.nanoTime();
+
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.GLM, Mono.never())
+				.contextWrite(RequestDeadline.after(Duration.ofMillis(20)).asContext())
+				.block(Duration.ofSeconds(5)))
+				.isInstanceOf(UpstreamUnavailableException.class).hasMessageContaining("timed out");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+	}
+
+	@Test
+	void reactiveCallWaitsForAFreePermission() throws Exception {
+		Sinks.One<String> first = Sinks.one();
+		Disposable holder = guard.guard(UpstreamGuard.SNOW, first.asMono()).subscribe();
+		CompletableFuture<String> second = guard.guard(UpstreamGuard.SNOW, Mono.just("second")).toFuture();
+
+		sleep(Duration.ofMillis(50));
+		assertThat(second).isNotDone();
+		first.tryEmitValue("first");
+
+		assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("second");
+		holder.dispose();
+	}
+
+	@Test
+	void callIsRejectedOnceTheMaxWaitRunsOut() {
+		Disposable holder = guard.guard(UpstreamGuard.SNOW, Mono.never()).subscribe();
+		long start = System.nanoTime();
+
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.SNOW, () -> "second"))
+				.isInstanceOf(UpstreamUnavailableException.class).hasMessageContaining("too many concurrent calls");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+		holder.dispose();
+	}
+
+	@Test
+	void waitForAPermissionEndsAtTheRequestDeadline() {
+		Disposable holder = guard.guard(UpstreamGuard.SNOW, Mono.never()).subscribe();
+		long start = System.nanoTime();
+
+		assertThatThrownBy(() -> guard.guard(UpstreamGuard.SNOW, Mono.just("second"))
+				.contextWrite(RequestDeadline.after(Duration.ofMillis(30)).asContext())
+				.block(Duration.ofSeconds(5)))
+				.isInstanceOf(UpstreamUnavailableException.class);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+		holder.dispose();
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
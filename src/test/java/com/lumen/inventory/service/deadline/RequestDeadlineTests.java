@@ -0,0 +1,56 @@
+package com.lumen.inventory.service.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.RequestDeadlineProperties;
+
+import reactor.core.publisher.Mono;
+
+class RequestDeadlineTests {
+
+	@Test
+	void stageIsCancelledWhenDeadlinePasses() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Mono<String> stage = RequestDeadline.limit("snow.fetch", Mono.<String>never().doOnCancel(() -> cancelled.set(true)))
+				.contextWrite(RequestDeadline.after(Duration.ofMillis(50)).asContext());
+
+		assertThatThrownBy(() -> stage.block(Duration.ofSeconds(5)))
+				.isInstanceOf(RequestDeadlineExceededException.class)
+				.hasMessageContaining("snow.fetch");
+		assertThat(cancelled).isTrue();
+	}
+
+	@Test
+	void stageIsNotStartedAfterDeadline() {
+		AtomicBoolean subscribed = new AtomicBoolean();
+		Mono<String> stage = RequestDeadline.limit("glm.fetch", Mono.just("sites").doOnSubscribe(s -> subscribed.set(true)))
+				.contextWrite(RequestDeadline.after(Duration.ZERO).asContext());
+
+		assertThatThrownBy(stage::block).isInstanceOf(RequestDeadlineExceededException.class);
+		assertThat(subscribed).isFalse();
+	}
+
+	@Test
+	void stageWithoutDeadlineIsUnbounded() {
+		assertThat(RequestDeadline.limit("am.fanout", Mono.just("bans")).block()).isEqualTo("bans");
+	}
+
+	@Test
+	void requestedBudgetIsCappedAndDefaulted() {
+		RequestDeadlineProperties properties = new RequestDeadlineProperties();
+		properties.setDefaultTimeout(Duration.ofSeconds(10));
+		properties.setMaxTimeout(Duration.ofSeconds(20));
+
+		assertThat(RequestDeadline.of(Optional.of(60_000L), properties).remaining()).isLessThanOrEqualTo(Duration.ofSeconds(20));
+		assertThat(RequestDeadline.of(Optional.empty(), properties).remaining())
+				.isLessThanOrEqualTo(Duration.ofSeconds(10)).isGreaterThan(Duration.ofSeconds(9));
+		assertThat(RequestDeadline.of(Optional.of(500L), properties).remaining()).isLessThanOrEqualTo(Duration.ofMillis(500));
+	}
+}
@@ -0,0 +1,137 @@
+package com.lumen.inventory.service.enrichement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.service.deadline.RequestDeadline;
+import com.lumen.inventory.service.deadline.RequestDeadlineExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EnrichmentExecutorTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private EnrichmentExecutor executor;
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
+	}
+
+	@Test
+	void callsBeyondTheCapWaitForAPermit() throws Exception {
+		executor = executor(2);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		List<CompletableFuture<Integer>> calls = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			int call = i;
+			calls.add(executor.submit(() -> {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				inFlight.decrementAndGet();
+				return call;
+			}));
+		}
+
+		awaitGauge("inventory.am.calls.queued", 4);
+		assertThat(meterRegistry.get("inventory.am.calls.active").gauge().value()).isEqualTo(2.0);
+		release.countDown();
+
+		CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		assertThat(calls).extracting(CompletableFuture::join).containsExactly(0, 1, 2, 3, 4, 5);
+		assertThat(maxInFlight).hasValue(2);
+		assertThat(meterRegistry.get("inventory.am.calls.active").gauge().value()).isZero();
+	}
+
+	@Test
+	void failedCallReleasesItsPermit() throws Exception {
+		executor = executor(1);
+
+		CompletableFuture<String> failed = executor.submit(() -> {
+			throw new IllegalStateException("AM down");
+		});
+
+		assertThat(failed).failsWithin(5, TimeUnit.SECONDS);
+		assertThat(executor.submit(() -> "next").get(5, TimeUnit.SECONDS)).isEqualTo("next");
+	}
+
+	@Test
+	void callStillWaitingForAPermitAtTheDeadlineIsSkipped() throws Exception {
+		executor = executor(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> holder = executor.submit(() -> {
+			awaitQuietly(release);
+			return "holder";
+		});
+		awaitGauge("inventory.am.calls.active", 1);
+		AtomicInteger calls = new AtomicInteger();
+
+		CompletableFuture<Integer> late = executor.submit(RequestDeadline.after(Duration.ofMillis(50)), calls::incrementAndGet);
+		CompletableFuture<Integer> expired = executor.submit(RequestDeadline.after(Duration.ZERO), calls::incrementAndGet);
+
+		assertThat(late).failsWithin(5, TimeUnit.SECONDS).withThrowableThat().withCauseInstanceOf(RequestDeadlineExceededException.class);
+		assertThat(expired).failsWithin(5, TimeUnit.SECONDS).withThrowableThat().withCauseInstanceOf(RequestDeadlineExceededException.class);
+		release.countDown();
+		assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("holder");
+		assertThat(calls).hasValue(0);
+	}
+
+	@Test
+	void cancellingTheFutureInterruptsTheCall() throws Exception {
+		executor = executor(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CompletableFuture<String> call = executor.submit(RequestDeadline.after(Duration.ofSeconds(5)), () -> {
+			try {
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return "late";
+		});
+		awaitGauge("inventory.am.calls.active", 1);
+
+		call.cancel(true);
+
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.submit(() -> "next").get(5, TimeUnit.SECONDS)).isEqualTo("next");
+	}
+
+	private EnrichmentExecutor executor(int maxConcurrentAmCalls) {
+		InventoryEnrichmentProperties properties = new InventoryEnrichmentProperties();
+		properties.setMaxConcurrentAmCalls(maxConcurrentAmCalls);
+		return new EnrichmentExecutor(properties, meterRegistry);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void awaitGauge(String name, double value) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get(name).gauge().value() != value && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(meterRegistry.get(name).gauge().value()).isEqualTo(value);
+	}
+}
@@ -0,0 +1,86 @@
+package com.lumen.inventory.service.enrichement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.dto.responses.EnrichmentStatus;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.MissingEnrichment;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.integration.account.BanMappingCache;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+import com.lumen.inventory.service.mapper.MappedProduct;
+import com.lumen.inventory.service.mapper.ProductToServiceInventoryMapper;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PartialResultsTests {
+
+	private InventoryEnrichmentService enrichmentService;
+
+	@BeforeEach
+	void setUp() {
+		InventoryEnrichmentProperties properties = new InventoryEnrichmentProperties();
+		enrichmentService = new InventoryEnrichmentService(mock(BanMappingCache.class),
+				new ProductToServiceInventoryMapper(properties),
+				new InventoryStageMetrics(new SimpleMeterRegistry()));
+	}
+
+	@Test
+	void unresolvedBansAreMarkedButUnknownBansAreNot() {
+		MappedProduct resolved = new MappedProduct(new ServiceInventory(), "BAN-1");
+		MappedProduct unknown = new MappedProduct(new ServiceInventory(), "BAN-2");
+		MappedProduct unresolved = new MappedProduct(new ServiceInventory(), "BAN-3");
+		MappedProduct withoutBan = new MappedProduct(new ServiceInventory(), null);
+
+		enrichmentService.applyBillingAccounts(List.of(resolved, unknown, unresolved, withoutBan),
+				Map.of("BAN-1", new BillingAccountMapping("INV-1", "CUST-1"), "BAN-2", BillingAccountMapping.NOT_FOUND));
+
+		assertThat(resolved.inventory().getMissingEnrichments()).isNull();
+		assertThat(unknown.inventory().getMissingEnrichments()).isNull();
+		assertThat(withoutBan.inventory().getMissingEnrichments()).isNull();
+		assertThat(unresolved.inventory().getMissingEnrichments())
+				.containsExactly(MissingEnrichment.of(MissingEnrichment.BILLING_ACCOUNT, "BAN-3"));
+	}
+
+	@Test
+	void responseWithMissingEnrichmentsIsSummarizedPerStage() {
+		ServiceInventory complete = new ServiceInventory();
+		ServiceInventory withoutBilling = new ServiceInventory();
+		PartialResults.markMissing(withoutBilling, MissingEnrichment.BILLING_ACCOUNT, "BAN-3");
+		ServiceInventory withoutBoth = new ServiceInventory();
+		PartialResults.markMissing(withoutBoth, MissingEnrichment.BILLING_ACCOUNT, "BAN-4");
+		PartialResults.markMissing(withoutBoth, MissingEnrichment.LOCATION, "SITE-1");
+		GetInventoryResponse response = new GetInventoryResponse();
+		response.setInventoryList(List.of(complete, withoutBilling, withoutBoth));
+
+		PartialResults.summarize(response);
+
+		assertThat(response.getPartial()).isTrue();
+		assertThat(response.getEnrichmentStatus())
+				.extracting(EnrichmentStatus::getEnrichment, EnrichmentStatus::getMissingItems)
+				.containsExactly(
+						tuple(MissingEnrichment.BILLING_ACCOUNT, 2),
+						tuple(MissingEnrichment.LOCATION, 1));
+	}
+
+	@Test
+	void completeResponseIsLeftUnchanged() {
+		GetInventoryResponse response = new GetInventoryResponse();
+		response.setInventoryList(List.of(new ServiceInventory()));
+
+		PartialResults.summarize(response);
+
+		assertThat(response.getPartial()).isNull();
+		assertThat(response.getEnrichmentStatus()).isNull();
+	}
+}
@@ -0,0 +1,194 @@
+package com.lumen.inventory.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lumen.error.enums.ErrorCode;
+import com.lumen.error.exception.ProcessingException;
+import com.lumen.inventory.config.InventoryResponseCacheProperties;
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetEnrichmentResponse;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.PaginationResponse;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.exception.NoInventoryFoundException;
+import com.lumen.inventory.service.internet.InternetInventoryService;
+import com.lumen.inventory.service.port.PortInventoryService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class InventoryQueryServiceImplTests {
+
+	private InternetInventoryService internetInventoryService;
+	private InventoryQueryServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		internetInventoryService = mock(InternetInventoryService.class);
+		service = new InventoryQueryServiceImpl();
+		ReflectionTestUtils.setField(service, "internetInventoryService", internetInventoryService);
+		ReflectionTestUtils.setField(service, "inventoryRequestCoalescer", new InventoryRequestCoalescer(meterRegistry));
+		ReflectionTestUtils.setField(service, "inventoryResponseCache",
+				new InventoryResponseCache(new InventoryResponseCacheProperties(), new ObjectMapper(), meterRegistry));
+	}
+
+	@Test
+	void allQueriesInternetAndPort() {
+		mockPort(Mono.just(ResponseEntity.ok(page(1, "PORT1"))));
+		when(internetInventoryService.getInventoryInternetListAsync(any())).thenReturn(Mono.just(ResponseEntity.ok(page(1, "SVC1"))));
+
+		ResponseEntity<GetInventoryResponse> response = query("All");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("SVC1", "PORT1");
+		assertThat(response.getBody().getErrors()).isNull();
+	}
+
+	@Test
+	void portAloneIsAnsweredByThePortFlow() {
+		mockPort(Mono.just(ResponseEntity.ok(page(1, "PORT1"))));
+
+		ResponseEntity<GetInventoryResponse> response = query("Port");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("PORT1");
+		verify(internetInventoryService, times(0)).getInventoryInternetListAsync(any());
+	}
+
+	@Test
+	void typeWithoutInventoryIsAnEmptySuccess() {
+		enableResponseCache();
+		PortInventoryService portInventoryService = mockPort(Mono.error(new NoInventoryFoundException("no ports")));
+		when(internetInventoryService.getInventoryInternetListAsync(any())).thenReturn(Mono.just(ResponseEntity.ok(page(30, "SVC1"))));
+
+		ResponseEntity<GetInventoryResponse> response = query("Internet,Port");
+		query("Internet,Port");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getErrors()).isNull();
+		assertThat(response.getBody().getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("SVC1");
+		assertThat(response.getBody().getPagination())
+				.extracting(PaginationResponse::getServiceType, PaginationResponse::getTotalRecords)
+				.containsExactly(tuple("Internet", 30), tuple("Port", 0));
+		// a complete merged response is cached like any other
+		verify(internetInventoryService, times(1)).getInventoryInternetListAsync(any());
+		verify(portInventoryService, times(1)).getInventoryPortListAsync(any());
+	}
+
+	@Test
+	void mergedPageHoldsOnePagePerType() {
+		mockPort(Mono.just(ResponseEntity.ok(page(3, "PORT1", "PORT2"))));
+		when(internetInventoryService.getInventoryInternetListAsync(any())).thenReturn(Mono.just(ResponseEntity.ok(page(30, "SVC1"))));
+
+		GetInventoryResponse response = query("Port,Internet", 2, 5).getBody();
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("SVC1", "PORT1", "PORT2");
+		assertThat(response.getResultCount()).isEqualTo(3);
+		assertThat(response.getPageNumber()).isEqualTo(2);
+		assertThat(response.getPageSize()).isEqualTo(5);
+		assertThat(response.getPagination())
+				.extracting(PaginationResponse::getServiceType, PaginationResponse::getTotalRecords)
+				.containsExactly(tuple("Internet", 30), tuple("Port", 3));
+	}
+
+	@Test
+	void failedTypeIsListedInErrors() {
+		mockPort(Mono.error(new ProcessingException(ErrorCode.SERVICE_UNAVAILABLE, "port lookup failed")));
+		when(internetInventoryService.getInventoryInternetListAsync(any())).thenReturn(Mono.just(ResponseEntity.ok(page(30, "SVC1"))));
+
+		GetInventoryResponse response = query("Internet,Port").getBody();
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("SVC1");
+		assertThat(response.getPagination()).extracting(PaginationResponse::getServiceType).containsExactly("Internet");
+		assertThat(response.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getServiceType()).isEqualTo("Port");
+			assertThat(error.getMessage()).isEqualTo("port lookup failed");
+		});
+	}
+
+	@Test
+	void noInventoryForAnyTypeIsNotFound() {
+		mockPort(Mono.error(new NoInventoryFoundException("no ports")));
+		when(internetInventoryService.getInventoryInternetListAsync(any())).thenReturn(Mono.error(new NoInventoryFoundException("no services")));
+
+		assertThatThrownBy(() -> query("Internet,Port"))
+				.isInstanceOf(NoInventoryFoundException.class)
+				.hasMessage("no services");
+	}
+
+	@Test
+	void enrichmentWithoutKeysIsBadRequest() {
+		Mono<GetEnrichmentResponse> enrichment = service.getEnrichmentAsync(List.of(" "), null);
+
+		assertThatThrownBy(() -> enrichment.block(Duration.ofSeconds(5)))
+				.isInstanceOf(ProcessingException.class)
+				.hasMessageContaining("At least one BAN or master site id is required");
+	}
+
+	private PortInventoryService mockPort(Mono<ResponseEntity<GetInventoryResponse>> response) {
+		PortInventoryService portInventoryService = mock(PortInventoryService.class);
+		when(portInventoryService.getInventoryPortListAsync(any())).thenReturn(response);
+		ReflectionTestUtils.setField(service, "portInventoryService", portInventoryService);
+		return portInventoryService;
+	}
+
+	private void enableResponseCache() {
+		InventoryResponseCacheProperties properties = new InventoryResponseCacheProperties();
+		properties.setEnabled(true);
+		ReflectionTestUtils.setField(service, "inventoryResponseCache",
+				new InventoryResponseCache(properties, new ObjectMapper(), new SimpleMeterRegistry()));
+	}
+
+	private ResponseEntity<GetInventoryResponse> query(String serviceType, int pageNumber, int pageSize) {
+		InventoryQueryParams params = new InventoryQueryParams(List.of("15182"), Optional.of(serviceType), Optional.empty(),
+				Optional.of(pageNumber), Optional.of(pageSize));
+		return service.getCustomerInventoryAsync(params).block(Duration.ofSeconds(5));
+	}
+
+	private ResponseEntity<GetInventoryResponse> query(String serviceType) {
+		InventoryQueryParams params = new InventoryQueryParams(List.of("15182"), Optional.of(serviceType), Optional.empty());
+		return service.getCustomerInventoryAsync(params).block(Duration.ofSeconds(5));
+	}
+
+	private static GetInventoryResponse page(String... serviceIds) {
+		return page(null, serviceIds);
+	}
+
+	private static GetInventoryResponse page(Integer totalRecords, String... serviceIds) {
+		GetInventoryResponse response = new GetInventoryResponse();
+		response.setInventoryList(Arrays.stream(serviceIds).map(serviceId -> {
+			ServiceInventory inventory = new ServiceInventory();
+			inventory.setServiceId(serviceId);
+			return inventory;
+		}).toList());
+		response.setPageNumber(1);
+		response.setPageSize(20);
+		response.setResultCount(serviceIds.length);
+		PaginationResponse pagination = new PaginationResponse();
+		pagination.setPageNumber(1);
+		pagination.setPageSize(20);
+		pagination.setTotalRecords(totalRecords);
+		response.setPagination(List.of(pagination));
+		return response;
+	}
+}
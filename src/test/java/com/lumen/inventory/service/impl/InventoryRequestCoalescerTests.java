@@ -0,0 +1,60 @@
+package com.lumen.inventory.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class InventoryRequestCoalescerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InventoryRequestCoalescer coalescer = new InventoryRequestCoalescer(meterRegistry);
+
+	@Test
+	void identicalQueriesInFlightShareOneExecution() {
+		InventoryQueryParams first = new InventoryQueryParams(List.of("6887", "15182"), Optional.of("internet"), Optional.empty()).normalized();
+		InventoryQueryParams second = new InventoryQueryParams(List.of(" 15182", "6887"), Optional.of("Internet"), Optional.empty()).normalized();
+		Sinks.One<ResponseEntity<GetInventoryResponse>> upstream = Sinks.one();
+		AtomicInteger executions = new AtomicInteger();
+
+		Mono<ResponseEntity<GetInventoryResponse>> firstResult = coalescer.execute(first, () -> {
+			executions.incrementAndGet();
+			return upstream.asMono();
+		}).cache();
+		Mono<ResponseEntity<GetInventoryResponse>> secondResult = coalescer.execute(second, () -> {
+			executions.incrementAndGet();
+			return upstream.asMono();
+		}).cache();
+		firstResult.subscribe();
+		secondResult.subscribe();
+		upstream.tryEmitValue(ResponseEntity.ok(new GetInventoryResponse()));
+
+		assertThat(firstResult.block()).isSameAs(secondResult.block());
+		assertThat(executions).hasValue(1);
+		assertThat(meterRegistry.get("inventory.requests.coalescing.ratio").gauge().value()).isEqualTo(0.5);
+	}
+
+	@Test
+	void completedExecutionIsNotReused() {
+		InventoryQueryParams params = new InventoryQueryParams(List.of("15182"), Optional.of("Internet"), Optional.empty()).normalized();
+		AtomicInteger executions = new AtomicInteger();
+
+		coalescer.execute(params, () -> Mono.fromCallable(() -> ResponseEntity.ok(new GetInventoryResponse()))
+				.doOnSubscribe(s -> executions.incrementAndGet())).block();
+		coalescer.execute(params, () -> Mono.fromCallable(() -> ResponseEntity.ok(new GetInventoryResponse()))
+				.doOnSubscribe(s -> executions.incrementAndGet())).block();
+
+		assertThat(executions).hasValue(2);
+	}
+}
@@ -0,0 +1,101 @@
+package com.lumen.inventory.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lumen.inventory.config.InventoryResponseCacheProperties;
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.InventoryError;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class InventoryResponseCacheTests {
+
+	private final InventoryQueryParams queryParams = new InventoryQueryParams(List.of("6887"), Optional.of("Internet"), Optional.empty()).normalized();
+	private final AtomicInteger loads = new AtomicInteger();
+	private InventoryResponseCache cache;
+
+	@BeforeEach
+	void setUp() {
+		InventoryResponseCacheProperties properties = new InventoryResponseCacheProperties();
+		properties.setEnabled(true);
+		cache = new InventoryResponseCache(properties, new ObjectMapper(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void cacheHitSkipsTheLoader() {
+		ResponseEntity<GetInventoryResponse> first = get(Optional.empty(), response());
+		ResponseEntity<GetInventoryResponse> second = get(Optional.empty(), response());
+
+		assertThat(loads).hasValue(1);
+		assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(second.getHeaders().getETag()).isNotNull().isEqualTo(first.getHeaders().getETag());
+		assertThat(second.getBody()).isSameAs(first.getBody());
+	}
+
+	@Test
+	void matchingIfNoneMatchYieldsNotModified() {
+		String etag = get(Optional.empty(), response()).getHeaders().getETag();
+
+		for (String ifNoneMatch : List.of(etag, "W/" + etag, "\"other\", " + etag, "*")) {
+			ResponseEntity<GetInventoryResponse> response = get(Optional.of(ifNoneMatch), response());
+			assertThat(response.getStatusCode()).as(ifNoneMatch).isEqualTo(HttpStatus.NOT_MODIFIED);
+			assertThat(response.getBody()).isNull();
+		}
+		assertThat(get(Optional.of("\"other\""), response()).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void responsesWithErrorsAreNotCached() {
+		GetInventoryResponse failedType = response();
+		InventoryError error = new InventoryError();
+		error.setServiceType("Port");
+		error.setStatus(503);
+		failedType.setErrors(List.of(error));
+
+		ResponseEntity<GetInventoryResponse> response = get(Optional.empty(), failedType);
+		get(Optional.empty(), failedType);
+
+		assertThat(loads).hasValue(2);
+		assertThat(response.getHeaders().getETag()).isNull();
+	}
+
+	@Test
+	void partialResponsesAreNotCached() {
+		GetInventoryResponse partial = response();
+		partial.setPartial(true);
+
+		get(Optional.empty(), partial);
+		get(Optional.empty(), partial);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	private ResponseEntity<GetInventoryResponse> get(Optional<String> ifNoneMatch, GetInventoryResponse body) {
+		return cache.getOrLoad(queryParams, ifNoneMatch, () -> Mono.fromSupplier(() -> {
+			loads.incrementAndGet();
+			return ResponseEntity.ok(body);
+		})).block(Duration.ofSeconds(5));
+	}
+
+	private static GetInventoryResponse response() {
+		GetInventoryResponse response = new GetInventoryResponse();
+		response.setInventoryList(List.of());
+		response.setPageNumber(1);
+		response.setPageSize(20);
+		return response;
+	}
+}
@@ -0,0 +1,34 @@
+package com.lumen.inventory.service.internet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ChunkPageSliceTests {
+
+	@Test
+	void firstPageIsServedFromTheFirstPagesOfTheChunks() {
+		assertThat(ChunkPageSlice.plan(List.of(5, 0, 30), 1, 20)).containsExactly(
+				new ChunkPageSlice(0, 1, 0, 5),
+				new ChunkPageSlice(2, 1, 0, 15));
+	}
+
+	@Test
+	void pageCrossingSnowPageBoundariesIsSplitAlongThem() {
+		// page 2 covers merged positions 20..39: chunk 0 positions 20..24, chunk 1 positions 0..14
+		assertThat(ChunkPageSlice.plan(List.of(25, 40), 2, 20)).containsExactly(
+				new ChunkPageSlice(0, 2, 0, 5),
+				new ChunkPageSlice(1, 1, 0, 15));
+		// page 3 covers merged positions 40..59: chunk 1 positions 15..34, i.e. SNOW pages 1 and 2 of chunk 1
+		assertThat(ChunkPageSlice.plan(List.of(25, 40), 3, 20)).containsExactly(
+				new ChunkPageSlice(1, 1, 15, 20),
+				new ChunkPageSlice(1, 2, 0, 15));
+	}
+
+	@Test
+	void pageBeyondTheLastRecordIsEmpty() {
+		assertThat(ChunkPageSlice.plan(List.of(10, 10), 2, 20)).isEmpty();
+	}
+}
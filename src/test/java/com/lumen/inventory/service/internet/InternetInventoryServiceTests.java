@@ -0,0 +1,243 @@
+package com.lumen.inventory.service.internet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.exception.NoInventoryFoundException;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.service.enrichement.InventoryEnrichmentService;
+import com.lumen.inventory.service.enrichement.LocationEnrichmentService;
+import com.lumen.inventory.service.mapper.MappedProduct;
+import com.lumen.inventory.service.mapper.SnowProductPage;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import com.lumen.snow.service.SNOWRestClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Drives the SNOW paging pipeline against an in-memory ServiceNow: every customer owns a list of service ids,
+ * a SNOW payload is the comma-separated ids of the requested page and {@code X-Total-Count} reports the total.
+ */
+class InternetInventoryServiceTests {
+
+	private final Map<String, List<String>> servicesByCustomer = new LinkedHashMap<>();
+	private final List<String> snowCalls = new CopyOnWriteArrayList<>();
+	private final InventoryEnrichmentProperties properties = new InventoryEnrichmentProperties();
+	private InventoryEnrichmentService inventoryEnrichmentService;
+	private InternetInventoryService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		SNOWRestClient snowRestClient = mock(SNOWRestClient.class);
+		when(snowRestClient.getInventoryInternetInformationBasedOnMultipleCustomers(anyString(), any(), any(), anyString(), any()))
+				.thenAnswer(invocation -> Mono.fromSupplier(() -> snowPage(invocation.getArgument(0),
+						invocation.<Optional<Integer>>getArgument(1).orElseThrow(), invocation.<Optional<Integer>>getArgument(2).orElseThrow())));
+		inventoryEnrichmentService = mock(InventoryEnrichmentService.class);
+		when(inventoryEnrichmentService.mapSnowProducts(anyString(), any())).thenAnswer(invocation -> mapProducts(invocation.getArgument(0), invocation.getArgument(1)));
+		when(inventoryEnrichmentService.fillBanHashMapByCallingAMServiceAsync(any())).thenReturn(Mono.just(new ConcurrentHashMap<String, BillingAccountMapping>()));
+		LocationEnrichmentService locationEnrichmentService = mock(LocationEnrichmentService.class);
+		when(locationEnrichmentService.fetchSiteLocations(any())).thenReturn(Mono.just(List.of()));
+
+		service = new InternetInventoryService();
+		ReflectionTestUtils.setField(service, "snowRestClient", snowRestClient);
+		ReflectionTestUtils.setField(service, "inventoryEnrichmentService", inventoryEnrichmentService);
+		ReflectionTestUtils.setField(service, "locationEnrichmentService", locationEnrichmentService);
+		ReflectionTestUtils.setField(service, "inventoryEnrichmentProperties", properties);
+		ReflectionTestUtils.setField(service, "inventoryStageMetrics", new InventoryStageMetrics(meterRegistry));
+		ReflectionTestUtils.setField(service, "upstreamGuard", new UpstreamGuard(new UpstreamResilienceProperties(), meterRegistry));
+		ReflectionTestUtils.setField(service, "naasInventoryDetailMaxPageSize", "100");
+		ReflectionTestUtils.setField(service, "snowTotalCountHeader", "X-Total-Count");
+	}
+
+	@Test
+	void chunkedCustomersArePagedAsOneList() {
+		properties.setSnowCustomerChunkSize(2);
+		customer("C1", "A1", "A2", "A3");
+		customer("C2", "B1", "B2");
+		customer("C3", "D1", "D2");
+
+		GetInventoryResponse response = page(List.of("C1", "C2", "C3"), 2, 3);
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("B1", "B2", "D1");
+		assertThat(response.getPagination().get(0).getTotalRecords()).isEqualTo(7);
+		// first pages of both chunks, then only the chunk page holding the rest of the requested page
+		assertThat(snowCalls).containsExactlyInAnyOrder("C1,C2#1", "C3#1", "C1,C2#2");
+	}
+
+	@Test
+	void serviceListedUnderSeveralChunksIsReturnedOnce() {
+		properties.setSnowCustomerChunkSize(1);
+		customer("C1", "A1", "SHARED");
+		customer("C2", "shared", "B1");
+
+		GetInventoryResponse response = page(List.of("C1", "C2"), 1, 10);
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("A1", "SHARED", "B1");
+	}
+
+	@Test
+	void shortCustomerListIsOneSnowCall() {
+		customer("C1", "A1", "A2", "A3");
+		customer("C2", "B1");
+
+		GetInventoryResponse response = page(List.of("C1", "C2"), 2, 2);
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("A3", "B1");
+		assertThat(snowCalls).containsExactly("C1,C2#2");
+	}
+
+	@Test
+	void pageAfterTheLastOneIsEmptyWithTheTotal() {
+		customer("C1", "A1", "A2", "A3");
+
+		GetInventoryResponse response = page(List.of("C1"), 3, 2);
+
+		assertThat(response.getInventoryList()).isEmpty();
+		assertThat(response.getPagination().get(0).getTotalRecords()).isEqualTo(3);
+	}
+
+	@Test
+	void chunkedPageAfterTheLastOneIsEmptyWithTheTotal() {
+		properties.setSnowCustomerChunkSize(1);
+		customer("C1", "A1", "A2");
+		customer("C2", "B1");
+
+		GetInventoryResponse response = page(List.of("C1", "C2"), 3, 2);
+
+		assertThat(response.getInventoryList()).isEmpty();
+		assertThat(response.getPagination().get(0).getTotalRecords()).isEqualTo(3);
+	}
+
+	@Test
+	void customersWithoutInventoryAreNotFound() {
+		customer("C1");
+
+		assertThatThrownBy(() -> page(List.of("C1"), 1, 2)).isInstanceOf(NoInventoryFoundException.class);
+	}
+
+	@Test
+	void exportWalksEveryPageInOrder() {
+		customer("C1", "A1", "A2", "A3", "A4", "A5");
+
+		List<ServiceInventory> exported = export(List.of("C1"), 2).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(exported).extracting(ServiceInventory::getServiceId).containsExactly("A1", "A2", "A3", "A4", "A5");
+		assertThat(snowCalls).containsExactly("C1#1", "C1#2", "C1#3");
+	}
+
+	@Test
+	void nextPageIsFetchedWhileThePreviousOneIsEnriched() throws InterruptedException {
+		customer("C1", "A1", "A2", "A3", "A4");
+		Sinks.One<ConcurrentHashMap<String, BillingAccountMapping>> firstPageBillingAccounts = Sinks.one();
+		when(inventoryEnrichmentService.fillBanHashMapByCallingAMServiceAsync(List.of("BAN-A1", "BAN-A2")))
+				.thenReturn(firstPageBillingAccounts.asMono());
+		List<String> exported = new CopyOnWriteArrayList<>();
+
+		export(List.of("C1"), 2).map(ServiceInventory::getServiceId).subscribe(exported::add);
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!snowCalls.contains("C1#2") && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(snowCalls).contains("C1#2");
+		assertThat(exported).isEmpty();
+		firstPageBillingAccounts.tryEmitValue(new ConcurrentHashMap<>());
+		while (exported.size() < 4 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(exported).containsExactly("A1", "A2", "A3", "A4");
+	}
+
+	@Test
+	void serviceIdSearchStopsAtThePageHoldingTheService() {
+		List<String> services = new ArrayList<>();
+		for (int i = 1; i <= 450; i++) {
+			services.add("SVC" + i);
+		}
+		servicesByCustomer.put("C1", services);
+		InventoryQueryParams params = new InventoryQueryParams(List.of("C1"), Optional.of("Internet"), Optional.of("svc150"));
+
+		GetInventoryResponse response = service.getInventoryInternetListAsync(params).block(Duration.ofSeconds(5)).getBody();
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("SVC150");
+		assertThat(response.getResultCount()).isEqualTo(1);
+		// page 3 may already be prefetched when page 2 matches, but no page after it is requested
+		assertThat(snowCalls).startsWith("C1#1", "C1#2").doesNotContain("C1#4", "C1#5");
+		verify(inventoryEnrichmentService, times(1)).fillBanHashMapByCallingAMServiceAsync(List.of("BAN-SVC150"));
+	}
+
+	private Flux<ServiceInventory> export(List<String> customerNumbers, int pageSize) {
+		return service.streamInventoryInternetList(new InventoryQueryParams(customerNumbers, Optional.of("Internet"), Optional.empty(),
+				Optional.empty(), Optional.of(pageSize)));
+	}
+
+	private GetInventoryResponse page(List<String> customerNumbers, int pageNumber, int pageSize) {
+		InventoryQueryParams params = new InventoryQueryParams(customerNumbers, Optional.of("Internet"), Optional.empty(),
+				Optional.of(pageNumber), Optional.of(pageSize));
+		return service.getInventoryInternetListAsync(params).block(Duration.ofSeconds(5)).getBody();
+	}
+
+	private void customer(String customerNumber, String... serviceIds) {
+		servicesByCustomer.put(customerNumber, List.of(serviceIds));
+	}
+
+	private ResponseEntity<String> snowPage(String customerNumbers, int pageNumber, int pageSize) {
+		snowCalls.add(customerNumbers + "#" + pageNumber);
+		List<String> services = new ArrayList<>();
+		for (String customerNumber : customerNumbers.split(",")) {
+			services.addAll(servicesByCustomer.getOrDefault(customerNumber, List.of()));
+		}
+		int from = Math.min(services.size(), (pageNumber - 1) * pageSize);
+		int to = Math.min(services.size(), from + pageSize);
+		return ResponseEntity.ok()
+				.header("X-Total-Count", String.valueOf(services.size()))
+				.body(String.join(",", services.subList(from, to)));
+	}
+
+	private static SnowProductPage mapProducts(String snowJson, Predicate<Product> productFilter) {
+		List<MappedProduct> mappedProducts = new ArrayList<>();
+		List<String> serviceIds = snowJson.isEmpty() ? List.of() : List.of(snowJson.split(","));
+		for (String serviceId : serviceIds) {
+			Product product = new Product();
+			product.setId(serviceId);
+			if (productFilter.test(product)) {
+				ServiceInventory inventory = new ServiceInventory();
+				inventory.setServiceId(serviceId);
+				mappedProducts.add(new MappedProduct(inventory, "BAN-" + serviceId));
+			}
+		}
+		return new SnowProductPage(mappedProducts, mappedProducts.stream().map(MappedProduct::ban).toList(), serviceIds.size());
+	}
+}
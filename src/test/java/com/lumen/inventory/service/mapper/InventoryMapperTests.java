@@ -0,0 +1,41 @@
+package com.lumen.inventory.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lumen.inventory.dto.responses.Product;
+
+class InventoryMapperTests {
+
+	private static final String SNOW_JSON = """
+			[
+			  {"id": "SVC1", "status": "Active",
+			   "relatedParty": [{"id": "BAN1", "referredType": "Customer"}]},
+			  {"id": "SVC2", "status": "Active",
+			   "relatedParty": [{"id": "BAN2", "referredType": "Customer"}]}
+			]
+			""";
+
+	@Test
+	void streamedProductsMatchBufferedParse() throws JsonProcessingException {
+		List<Product> streamed = new ArrayList<>();
+		InventoryMapper.streamProducts(SNOW_JSON, streamed::add);
+
+		assertThat(streamed).isEqualTo(new ObjectMapper().readValue(SNOW_JSON, new TypeReference<List<Product>>() {}));
+		assertThat(streamed).extracting(Product::getId).containsExactly("SVC1", "SVC2");
+	}
+
+	@Test
+	void streamingRejectsNonArrayPayload() {
+		assertThatThrownBy(() -> InventoryMapper.streamProducts("{\"id\": \"SVC1\"}", product -> { }))
+				.isInstanceOf(JsonProcessingException.class);
+	}
+}
@@ -0,0 +1,83 @@
+package com.lumen.inventory.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.dto.responses.ProductCharacteristic;
+import com.lumen.inventory.dto.responses.RelatedParty;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+
+class ProductToServiceInventoryMapperTests {
+
+	private InventoryEnrichmentProperties properties;
+	private ProductToServiceInventoryMapper mapper;
+
+	@BeforeEach
+	void setUp() {
+		properties = new InventoryEnrichmentProperties();
+		properties.setValidAttributeList("UNI Service ID,Router Type");
+		mapper = new ProductToServiceInventoryMapper(properties);
+	}
+
+	@Test
+	void keepsOnlyWhitelistedCharacteristics() {
+		ServiceInventory inventory = mapper.map(product()).inventory();
+
+		assertThat(inventory.getProductCharacteristic()).extracting(ProductCharacteristic::getName)
+				.containsExactly("UNI Service ID", "Router Type");
+	}
+
+	@Test
+	void whitelistFollowsReboundProperty() {
+		mapper.map(product());
+		properties.setValidAttributeList("Bandwidth");
+
+		ServiceInventory inventory = mapper.map(product()).inventory();
+
+		assertThat(inventory.getProductCharacteristic()).extracting(ProductCharacteristic::getName)
+				.containsExactly("Bandwidth");
+	}
+
+	@Test
+	void appliesBillingAccountOfCustomerBan() {
+		ServiceInventory inventory = mapper.map(product(), Map.of("BAN1", new BillingAccountMapping("INV1", "CUST1")), null);
+
+		assertThat(inventory.getBillingAccount().getId()).isEqualTo("INV1");
+		assertThat(inventory.getCustomerNumber()).isEqualTo("CUST1");
+	}
+
+	@Test
+	void notFoundBanGetsEmptyBillingAccount() {
+		ServiceInventory inventory = mapper.map(product(), Map.of("BAN1", BillingAccountMapping.NOT_FOUND), null);
+
+		assertThat(inventory.getBillingAccount().getId()).isEmpty();
+		assertThat(inventory.getCustomerNumber()).isEmpty();
+	}
+
+	private static Product product() {
+		Product product = new Product();
+		product.setId("SVC1");
+		product.setProductCharacteristic(List.of(
+				characteristic("UNI Service ID"), characteristic("Bandwidth"), characteristic("Router Type")));
+		RelatedParty customer = new RelatedParty();
+		customer.setId("BAN1");
+		customer.setReferredType("Customer");
+		product.setRelatedParty(List.of(customer));
+		return product;
+	}
+
+	private static ProductCharacteristic characteristic(String name) {
+		ProductCharacteristic characteristic = new ProductCharacteristic();
+		characteristic.setName(name);
+		characteristic.setValue(name + " value");
+		return characteristic;
+	}
+}
@@ -0,0 +1,154 @@
+package com.lumen.inventory.service.port;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lumen.inventory.config.InventoryEnrichmentProperties;
+import com.lumen.inventory.config.UpstreamResilienceProperties;
+import com.lumen.inventory.dto.InventoryQueryParams;
+import com.lumen.inventory.dto.responses.GetInventoryResponse;
+import com.lumen.inventory.dto.responses.Product;
+import com.lumen.inventory.dto.responses.ServiceInventory;
+import com.lumen.inventory.exception.NoInventoryFoundException;
+import com.lumen.inventory.integration.account.BillingAccountMapping;
+import com.lumen.inventory.integration.resilience.UpstreamGuard;
+import com.lumen.inventory.service.enrichement.InventoryEnrichmentService;
+import com.lumen.inventory.service.enrichement.LocationEnrichmentService;
+import com.lumen.inventory.service.mapper.MappedProduct;
+import com.lumen.inventory.service.mapper.SnowProductPage;
+import com.lumen.inventory.service.metrics.InventoryStageMetrics;
+import com.lumen.resourceapi.service.InventoryPortService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drives the Port pipeline against an in-memory Resource API: every customer owns a list of port ids and a payload
+ * is the comma-separated ids of one customer. The BANs handed to AM are recorded per enrichment.
+ */
+class PortInventoryServiceTests {
+
+	private final Map<String, List<String>> portsByCustomer = new LinkedHashMap<>();
+	private final List<List<String>> amLookups = new CopyOnWriteArrayList<>();
+	private PortInventoryService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		InventoryPortService inventoryPortService = mock(InventoryPortService.class);
+		when(inventoryPortService.getInventoryPortInformation(anyString()))
+				.thenAnswer(invocation -> Mono.fromSupplier(() -> resourceApiPayload(invocation.getArgument(0))));
+		InventoryEnrichmentService inventoryEnrichmentService = mock(InventoryEnrichmentService.class);
+		when(inventoryEnrichmentService.mapSnowProducts(anyString(), any())).thenAnswer(invocation -> mapProducts(invocation.getArgument(0), invocation.getArgument(1)));
+		when(inventoryEnrichmentService.fillBanHashMapByCallingAMServiceAsync(any())).thenAnswer(invocation -> {
+			amLookups.add(List.copyOf(invocation.<List<String>>getArgument(0)));
+			return Mono.just(new ConcurrentHashMap<String, BillingAccountMapping>());
+		});
+		LocationEnrichmentService locationEnrichmentService = mock(LocationEnrichmentService.class);
+		when(locationEnrichmentService.fetchSiteLocations(any())).thenReturn(Mono.just(List.of()));
+
+		service = new PortInventoryService();
+		ReflectionTestUtils.setField(service, "inventoryPortService", inventoryPortService);
+		ReflectionTestUtils.setField(service, "inventoryEnrichmentService", inventoryEnrichmentService);
+		ReflectionTestUtils.setField(service, "locationEnrichmentService", locationEnrichmentService);
+		ReflectionTestUtils.setField(service, "inventoryEnrichmentProperties", new InventoryEnrichmentProperties());
+		ReflectionTestUtils.setField(service, "inventoryStageMetrics", new InventoryStageMetrics(meterRegistry));
+		ReflectionTestUtils.setField(service, "upstreamGuard", new UpstreamGuard(new UpstreamResilienceProperties(), meterRegistry));
+	}
+
+	@Test
+	void portsOfAllCustomersArePagedAsOneListAndOnlyThePageIsEnriched() {
+		customer("C1", "P1", "P2", "P3");
+		customer("C2", "Q1", "Q2");
+
+		GetInventoryResponse response = page(List.of("C1", "C2"), 2, 2);
+
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceId).containsExactly("P3", "Q1");
+		assertThat(response.getInventoryList()).extracting(ServiceInventory::getServiceType).containsOnly("Port");
+		assertThat(response.getResultCount()).isEqualTo(2);
+		assertThat(response.getPagination().get(0).getTotalRecords()).isEqualTo(5);
+		assertThat(amLookups).containsExactly(List.of("BAN-P3", "BAN-Q1"));
+	}
+
+	@Test
+	void pagePastTheLastOneIsEmpty() {
+		customer("C1", "P1", "P2");
+
+		GetInventoryResponse response = page(List.of("C1"), 3, 2);
+
+		assertThat(response.getInventoryList()).isEmpty();
+		assertThat(response.getPagination().get(0).getTotalRecords()).isEqualTo(2);
+		assertThat(amLookups).isEmpty();
+	}
+
+	@Test
+	void customersWithoutPortsAreNotFound() {
+		customer("C1");
+
+		assertThatThrownBy(() -> page(List.of("C1", "C2"), 1, 20))
+				.isInstanceOf(NoInventoryFoundException.class)
+				.hasMessageContaining("C1,C2");
+	}
+
+	@Test
+	void exportEnrichesOnePageSizedSliceAtATime() {
+		customer("C1", "P1", "P2", "P3");
+		customer("C2", "Q1");
+
+		List<ServiceInventory> exported = service.streamInventoryPortList(new InventoryQueryParams(List.of("C1", "C2"),
+				Optional.of("Port"), Optional.empty(), Optional.empty(), Optional.of(3)))
+				.collectList().block(Duration.ofSeconds(5));
+
+		assertThat(exported).extracting(ServiceInventory::getServiceId).containsExactly("P1", "P2", "P3", "Q1");
+		assertThat(amLookups).containsExactly(List.of("BAN-P1", "BAN-P2", "BAN-P3"), List.of("BAN-Q1"));
+	}
+
+	private GetInventoryResponse page(List<String> customerNumbers, int pageNumber, int pageSize) {
+		InventoryQueryParams params = new InventoryQueryParams(customerNumbers, Optional.of("Port"), Optional.empty(),
+				Optional.of(pageNumber), Optional.of(pageSize));
+		return service.getInventoryPortListAsync(params).block(Duration.ofSeconds(5)).getBody();
+	}
+
+	private void customer(String customerNumber, String... portIds) {
+		portsByCustomer.put(customerNumber, List.of(portIds));
+	}
+
+	private ResponseEntity<String> resourceApiPayload(String customerNumber) {
+		List<String> ports = portsByCustomer.get(customerNumber);
+		return ports == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(String.join(",", ports));
+	}
+
+	private static SnowProductPage mapProducts(String json, Predicate<Product> productFilter) {
+		List<MappedProduct> mappedProducts = new ArrayList<>();
+		List<String> portIds = json.isEmpty() ? List.of() : List.of(json.split(","));
+		for (String portId : portIds) {
+			Product product = new Product();
+			product.setId(portId);
+			if (productFilter.test(product)) {
+				ServiceInventory inventory = new ServiceInventory();
+				inventory.setServiceId(portId);
+				mappedProducts.add(new MappedProduct(inventory, "BAN-" + portId));
+			}
+		}
+		return new SnowProductPage(mappedProducts, mappedProducts.stream().map(MappedProduct::ban).toList(), portIds.size());
+	}
+}